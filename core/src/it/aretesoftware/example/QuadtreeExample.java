@@ -16,8 +16,11 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 
 import java.util.Random;
 
+import it.aretesoftware.quadtree.DynamicAABBTree;
 import it.aretesoftware.quadtree.QuadTreeItem;
 import it.aretesoftware.quadtree.QuadTreeRoot;
+import it.aretesoftware.quadtree.SpatialHashGrid;
+import it.aretesoftware.quadtree.SpatialIndex;
 
 public class QuadtreeExample extends ApplicationAdapter {
 	SpriteBatch batch;
@@ -27,6 +30,9 @@ public class QuadtreeExample extends ApplicationAdapter {
 	Rectangle cameraBounds, rootBounds, spritesBounds;
 	Viewport viewport;
 	QuadTreeRoot<SpriteEntity> root;
+	DynamicAABBTree<SpriteEntity> aabbTree;
+	SpatialHashGrid<SpriteEntity> hashGrid;
+	SpatialIndex<SpriteEntity> index;
 	Array<SpriteEntity> sprites;
 	int cameraZoomSpeed, cameraMovementSpeed, spritesMovementSpeed;
 
@@ -46,10 +52,16 @@ public class QuadtreeExample extends ApplicationAdapter {
 		camera.update();
 		cameraBounds = new Rectangle();
 
-		rootBounds = new Rectangle(-20000, -20000, 100000, 100000);
+		spritesBounds = new Rectangle(10000, 10000, 40000, 40000);
+
+		rootBounds = new Rectangle(spritesBounds);
 		root = new QuadTreeRoot<>(rootBounds, 6, 4, 32);
+		root.setAutoExpand(true);
+		root.setGenerationalClear(true);
+		aabbTree = new DynamicAABBTree<>(32);
+		hashGrid = new SpatialHashGrid<>(texture.getWidth() * 2f, 32);
+		index = root;
 
-		spritesBounds = new Rectangle(10000, 10000, 40000, 40000);
 		CreateEntities(1000);
 
 		cameraZoomSpeed = 1;
@@ -89,6 +101,11 @@ public class QuadtreeExample extends ApplicationAdapter {
 		}
 	}
 
+	void SetIndex(SpatialIndex<SpriteEntity> newIndex) {
+		index.clear();
+		index = newIndex;
+	}
+
 	//
 
 	@Override
@@ -131,7 +148,7 @@ public class QuadtreeExample extends ApplicationAdapter {
 		shapes.begin(ShapeRenderer.ShapeType.Line);
 
 		if (!userInterface.IsQuadTreeDisabled()) {
-			root.render(shapes);
+			index.render(shapes);
 			shapes.flush();
 		}
 
@@ -146,19 +163,28 @@ public class QuadtreeExample extends ApplicationAdapter {
 	}
 
 	private void DrawWithQuadTree() {
-		root.clear();
-		for (SpriteEntity entity : sprites) {
-			QuadTreeItem<SpriteEntity> item = root.obtainItem();
-			item.init(entity, entity.GetBounds());
-			root.insert(item);
-		}
-
-		Array<QuadTreeItem<SpriteEntity>> list = root.retrieve(cameraBounds);
+		UpdateIndex(index, sprites);
+		Array<QuadTreeItem<SpriteEntity>> list = QueryIndex(index, cameraBounds);
 		for (QuadTreeItem<SpriteEntity> item : list) {
 			item.getObject().Draw(batch);
 		}
 	}
 
+	/** Rebuilds the index from the entities; shared with the headless benchmark. */
+	public static void UpdateIndex(SpatialIndex<SpriteEntity> index, Array<SpriteEntity> entities) {
+		index.clear();
+		for (SpriteEntity entity : entities) {
+			QuadTreeItem<SpriteEntity> item = index.obtainItem();
+			item.init(entity, entity.GetBounds(), entity.GetSortKey());
+			index.insert(item);
+		}
+	}
+
+	/** Retrieves the entities to draw, sorted by texture; shared with the headless benchmark. */
+	public static Array<QuadTreeItem<SpriteEntity>> QueryIndex(SpatialIndex<SpriteEntity> index, Rectangle cameraBounds) {
+		return index.retrieveSorted(cameraBounds);
+	}
+
 	private void DrawWithoutQuadTree() {
 		for (SpriteEntity entity : sprites) {
 			if (entity.IsVisible(cameraBounds)) {
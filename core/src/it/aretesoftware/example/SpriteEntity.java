@@ -8,10 +8,19 @@ public class SpriteEntity {
 
     private final Texture texture;
     private final Rectangle bounds;
+    private final int sortKey;
 
     public SpriteEntity(Texture texture) {
         this.texture = texture;
         bounds = new Rectangle(0, 0, texture.getWidth(), texture.getHeight());
+        sortKey = texture.getTextureObjectHandle();
+    }
+
+    /** Creates an entity without a texture, which can't be drawn; used by the headless benchmark. */
+    public SpriteEntity(float width, float height, int sortKey) {
+        this.texture = null;
+        bounds = new Rectangle(0, 0, width, height);
+        this.sortKey = sortKey;
     }
 
     public void Draw(Batch batch) {
@@ -26,6 +35,10 @@ public class SpriteEntity {
         return texture;
     }
 
+    public int GetSortKey() {
+        return sortKey;
+    }
+
     public boolean IsVisible(Rectangle cameraBounds) {
         return bounds.overlaps(cameraBounds);
     }
@@ -9,10 +9,12 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.CheckBox;
 import com.badlogic.gdx.scenes.scene2d.ui.HorizontalGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.FocusListener;
 import com.badlogic.gdx.utils.viewport.FitViewport;
@@ -26,6 +28,7 @@ public class UserInterface {
     private Label memoryLabel, fpsLabel, timeToRenderLabel;
     private TextField spritesCountTextField, maxLevelTextField, maxItemsPerNodeTextField;
     private CheckBox disableQuadTreeCheckBox;
+    private SelectBox<String> indexSelectBox;
 
     UserInterface(QuadtreeExample example) {
         this.example = example;
@@ -137,6 +140,23 @@ public class UserInterface {
             }
         });
         disableQuadTreeCheckBox = new CheckBox(" Disable QuadTree", skin);
+        indexSelectBox = new SelectBox<>(skin);
+        indexSelectBox.setItems("QuadTree", "AABB Tree", "Hash Grid");
+        indexSelectBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                switch (indexSelectBox.getSelectedIndex()) {
+                    case 1:
+                        example.SetIndex(example.aabbTree);
+                        break;
+                    case 2:
+                        example.SetIndex(example.hashGrid);
+                        break;
+                    default:
+                        example.SetIndex(example.root);
+                }
+            }
+        });
         //
         HorizontalGroup spritesCount = new HorizontalGroup();
         spritesCount.addActor(new Label("Sprites: ", skin));
@@ -146,6 +166,10 @@ public class UserInterface {
         maxLevel.addActor(new Label("Max Level: ", skin));
         maxLevel.addActor(maxLevelTextField);
 
+        HorizontalGroup spatialIndex = new HorizontalGroup();
+        spatialIndex.addActor(new Label("Spatial Index: ", skin));
+        spatialIndex.addActor(indexSelectBox);
+
         HorizontalGroup maxItemsPerNode = new HorizontalGroup();
         maxItemsPerNode.addActor(new Label("Max Items Per Node: ", skin));
         maxItemsPerNode.addActor(maxItemsPerNodeTextField);
@@ -156,6 +180,8 @@ public class UserInterface {
         widgetsTable.row();
         widgetsTable.add(spritesCount).top().right();
         widgetsTable.row();
+        widgetsTable.add(spatialIndex).top().right();
+        widgetsTable.row();
         widgetsTable.add(maxLevel).top().right();
         widgetsTable.row();
         widgetsTable.add(maxItemsPerNode).top().right();
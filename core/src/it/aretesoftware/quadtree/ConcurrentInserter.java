@@ -0,0 +1,248 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Lets several threads insert {@link QuadTreeItem}s into the same {@link QuadTreeRoot} at once, such as worker
+ * threads indexing their own chunk of entities. Every node is guarded by one of a fixed set of striped locks:
+ * an insertion only holds the lock of the node it's currently visiting, and a node that splits fills its four
+ * new nodes before publishing them, so no other thread ever sees a half-built subtree.
+ * Items and nodes come from per-thread caches, refilled in batches from the tree's own {@link PoolQuadTreeItem}
+ * and {@link PoolQuadTree} under a lock on the tree. Refills happen before an insertion takes any striped lock,
+ * reserving enough nodes for the deepest chain of splits it can cause, so the shared pools never serialize
+ * the threads walking the tree; should a split still run out of nodes, the refill takes the tree's lock while
+ * holding a striped one, always in that order.
+ * While inserting concurrently, the tree must not be cleared, queried or modified in any other way, and its
+ * bounds don't grow even if auto expansion is enabled; once every worker is done, call finish() from the thread
+ * that owns the tree, after joining the workers. Items are inserted into the tree's dynamic layer only.
+ * Trees paged by a {@link QuadTreePager} are rejected, as the inserter doesn't track the nodes it creates.
+ * Not available on GWT, which is single threaded.
+ * @author Aret3Dev */
+public class ConcurrentInserter<T> {
+
+    private final QuadTreeRoot<T> root;
+    private final Object[] locks;
+    private final int batchSize;
+    private final ThreadLocal<Cache<T>> caches = new ThreadLocal<Cache<T>>() {
+        @Override
+        protected Cache<T> initialValue() {
+            return new Cache<>(batchSize);
+        }
+    };
+
+    public ConcurrentInserter(QuadTreeRoot<T> root) {
+        this(root, 64, 32);
+    }
+
+    /**
+     * @param root the tree to insert into, which must not be paged
+     * @param stripes the amount of locks the nodes are spread over, rounded up to a power of two
+     * @param batchSize how many items or nodes a thread takes from the shared pools at once */
+    public ConcurrentInserter(QuadTreeRoot<T> root, int stripes, int batchSize) {
+        checkNotPaged(root);
+        this.root = root;
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    //
+
+    /**
+     * Obtains a {@link QuadTreeItem} from the calling thread's cache; safe to call from any thread,
+     * as long as nobody calls the tree's own obtainItem() meanwhile.
+     * @return a newly freed {@link QuadTreeItem} */
+    public QuadTreeItem<T> obtainItem() {
+        Cache<T> cache = cache();
+        if (cache.items.size == 0) {
+            synchronized (root) {
+                for (int i = 0; i < batchSize; i++) {
+                    cache.items.add(root.obtainItem());
+                }
+            }
+        }
+        return cache.items.pop();
+    }
+
+    /**
+     * Inserts a {@link QuadTreeItem} into the tree; safe to call from any thread.
+     * The item is placed exactly as {@link QuadTreeRoot}'s insert() would place it.
+     * @param item the item to add into the tree
+     * @return whether the item was added or not, false if it lies outside of the tree's bounds,
+     * in which case it's returned to the calling thread's cache */
+    public boolean insert(QuadTreeItem<T> item) {
+        checkNotPaged(root);
+        Rectangle rect = item.getFatBounds();
+        if (!rect.overlaps(root.bounds)) {
+            item.reset();
+            cache().items.add(item);
+            return false;
+        }
+        // Each split yields four nodes, and a split can only cascade into a single one of them
+        reserveNodes(cache(), Math.max(batchSize, 4 * root.getMaxLevel()));
+        int categoryMask = item.getCategoryMask();
+        QuadTree<T> node = root;
+        while (node != null) {
+            synchronized (lockOf(node)) {
+                node.subtreeCategoryMask |= categoryMask;
+                node.subtreeItemCount++;
+                QuadTree<T> child = node.isSplit() ? node.nodeContaining(rect) : null;
+                if (child == null) {
+                    node.items.add(item);
+                    item.node = node;
+                    if (!node.isSplit() && overflows(node)) {
+                        split(node, cache());
+                    }
+                    return true;
+                }
+                node = child;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stamps the tree as modified, see {@link InterestManager}; call it once every worker is done, from the thread
+     * that owns the tree. Joining the workers is what makes their insertions visible to said thread. */
+    public void finish() {
+        root.markModified();
+    }
+
+    //
+
+    /**
+     * Splits a node guarded by the caller's lock: the four new nodes are filled with the node's items
+     * while no other thread can reach them, and published once complete. */
+    private void split(QuadTree<T> node, Cache<T> cache) {
+        float halfWidth = (node.bounds.getWidth() * 0.5f);
+        float halfHeight = (node.bounds.getHeight() * 0.5f);
+        float x = node.bounds.getX();
+        float y = node.bounds.getY();
+        int newLevel = node.level + 1;
+
+        QuadTree<T> northWest = prepareNode(node, node.northWest, x, y + halfHeight, halfWidth, halfHeight, newLevel, cache);
+        QuadTree<T> northEast = prepareNode(node, node.northEast, x + halfWidth, y + halfHeight, halfWidth, halfHeight, newLevel, cache);
+        QuadTree<T> southWest = prepareNode(node, node.southWest, x, y, halfWidth, halfHeight, newLevel, cache);
+        QuadTree<T> southEast = prepareNode(node, node.southEast, x + halfWidth, y, halfWidth, halfHeight, newLevel, cache);
+
+        Array<QuadTreeItem<T>> items = node.items;
+        int i = 0;
+        while (i < items.size) {
+            QuadTreeItem<T> item = items.get(i);
+            Rectangle rect = item.getFatBounds();
+            QuadTree<T> child = northWest.bounds.contains(rect) ? northWest
+                    : northEast.bounds.contains(rect) ? northEast
+                    : southWest.bounds.contains(rect) ? southWest
+                    : southEast.bounds.contains(rect) ? southEast : null;
+            if (child != null) {
+                items.removeIndex(i);
+                place(child, item, cache);
+            }
+            else {
+                i++;
+            }
+        }
+
+        node.northWest = northWest;
+        node.northEast = northEast;
+        node.southWest = southWest;
+        node.southEast = southEast;
+    }
+
+    /** Same as insert(), for nodes not yet published, which need no locking. */
+    private void place(QuadTree<T> node, QuadTreeItem<T> item, Cache<T> cache) {
+        node.subtreeCategoryMask |= item.getCategoryMask();
+        node.subtreeItemCount++;
+        if (node.isSplit()) {
+            QuadTree<T> child = node.nodeContaining(item.getFatBounds());
+            if (child != null) {
+                place(child, item, cache);
+                return;
+            }
+        }
+        node.items.add(item);
+        item.node = node;
+        if (!node.isSplit() && overflows(node)) {
+            split(node, cache);
+        }
+    }
+
+    /** Same as {@link QuadTree}'s prepareNode(), but nodes are obtained from the thread's cache. */
+    private QuadTree<T> prepareNode(QuadTree<T> parent, QuadTree<T> node, float x, float y, float width, float height,
+                                    int newLevel, Cache<T> cache) {
+        if (node == null) {
+            reserveNodes(cache, 1);
+            node = cache.nodes.pop();
+        }
+        else {
+            node.items.clear();
+        }
+        node.subtreeCategoryMask = 0;
+        node.subtreeItemCount = 0;
+        node.parent = parent;
+        node.bounds.set(x, y, width, height);
+        node.level = newLevel;
+        node.generation = root.generation;
+        return node;
+    }
+
+    /**
+     * Refills the thread's cache of nodes, so that it holds at least the given amount.
+     * Must not be called while holding a striped lock, other than as a last resort. */
+    private void reserveNodes(Cache<T> cache, int count) {
+        if (cache.nodes.size >= count) {
+            return;
+        }
+        synchronized (root) {
+            while (cache.nodes.size < count) {
+                cache.nodes.add(root.obtainNode());
+            }
+        }
+    }
+
+    private static void checkNotPaged(QuadTreeRoot<?> root) {
+        if (root.pager != null) {
+            throw new GdxRuntimeException("A paged tree can't be inserted into concurrently.");
+        }
+    }
+
+    private boolean overflows(QuadTree<T> node) {
+        return node.items.size > root.getMaxItemsPerNode() && node.level < root.getMaxLevel();
+    }
+
+    private Object lockOf(QuadTree<T> node) {
+        return locks[System.identityHashCode(node) & (locks.length - 1)];
+    }
+
+    /**
+     * @return the calling thread's cache; items cached by a generational tree are dropped once the tree is cleared,
+     * as its slab hands them out again */
+    private Cache<T> cache() {
+        Cache<T> cache = caches.get();
+        if (cache.generation != root.generation) {
+            if (root.isGenerationalClear()) {
+                cache.items.clear();
+            }
+            cache.generation = root.generation;
+        }
+        return cache;
+    }
+
+    /** The items and nodes taken from the shared pools by a single thread, and not yet used. */
+    private static class Cache<T> {
+        final Array<QuadTreeItem<T>> items;
+        final Array<QuadTree<T>> nodes;
+        int generation;
+
+        Cache(int batchSize) {
+            items = new Array<>(false, batchSize);
+            nodes = new Array<>(false, batchSize);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * A convex area of the plane, described as the intersection of half-planes plus their bounding {@link Rectangle},
+ * used by {@link QuadTreeRoot} to search the tree with a rotated camera's {@link Frustum} or with a convex {@link Polygon}.
+ * Testing a {@link Rectangle} against it is a separating axis test: the rectangle's own axes through the bounding
+ * rectangle, then the region's edge normals through the half-planes.
+ * Reused between queries, so it only allocates when a region with more edges than ever before is set.
+ * @author Aret3Dev */
+public class ConvexRegion {
+
+    private static final int LEFT = 2, RIGHT = 3, TOP = 4, BOTTOM = 5;
+    private static final int[] FRUSTUM_CORNERS = {LEFT, TOP, TOP, RIGHT, RIGHT, BOTTOM, BOTTOM, LEFT};
+
+    /** Each half-plane takes three values, (nx, ny, d), and holds the points where nx * x + ny * y + d >= 0. */
+    private final FloatArray halfPlanes = new FloatArray(24);
+    private final Rectangle bounds = new Rectangle();
+    private boolean bounded;
+
+    //
+
+    /**
+     * Sets this region to a convex {@link Polygon}, whose vertices may be in either winding order.
+     * Concave polygons are not supported, the region would cover more than the polygon.
+     * @param polygon the convex polygon, its transformed vertices are used
+     * @return this region for chaining */
+    public ConvexRegion set(Polygon polygon) {
+        halfPlanes.clear();
+        float[] vertices = polygon.getTransformedVertices();
+        int count = vertices.length / 2;
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        float doubleArea = 0;
+        for (int i = 0; i < count; i++) {
+            float x1 = vertices[i * 2], y1 = vertices[i * 2 + 1];
+            float x2 = vertices[((i + 1) % count) * 2], y2 = vertices[((i + 1) % count) * 2 + 1];
+            doubleArea += x1 * y2 - x2 * y1;
+            minX = Math.min(minX, x1);
+            minY = Math.min(minY, y1);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+        }
+        bounds.set(minX, minY, maxX - minX, maxY - minY);
+        bounded = true;
+
+        // The interior lies left of each edge for counter-clockwise polygons, right of it otherwise
+        float orientation = doubleArea >= 0 ? 1f : -1f;
+        for (int i = 0; i < count; i++) {
+            float x1 = vertices[i * 2], y1 = vertices[i * 2 + 1];
+            float x2 = vertices[((i + 1) % count) * 2], y2 = vertices[((i + 1) % count) * 2 + 1];
+            float nx = -(y2 - y1) * orientation;
+            float ny = (x2 - x1) * orientation;
+            addHalfPlane(nx, ny, -(nx * x1 + ny * y1));
+        }
+        return this;
+    }
+
+    /**
+     * Sets this region to the cross-section of a {@link Frustum} with the z = 0 plane,
+     * through its left, right, top and bottom planes, which suits 2D cameras rotated around the z axis.
+     * @param frustum the camera's frustum, which should be up to date
+     * @return this region for chaining */
+    public ConvexRegion set(Frustum frustum) {
+        halfPlanes.clear();
+        Plane[] planes = frustum.planes;
+        for (int i = LEFT; i <= BOTTOM; i++) {
+            Vector3 normal = planes[i].normal;
+            addHalfPlane(normal.x, normal.y, planes[i].d);
+        }
+
+        bounded = false;
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < FRUSTUM_CORNERS.length; i += 2) {
+            Plane a = planes[FRUSTUM_CORNERS[i]];
+            Plane b = planes[FRUSTUM_CORNERS[i + 1]];
+            float determinant = a.normal.x * b.normal.y - a.normal.y * b.normal.x;
+            if (Math.abs(determinant) < 1e-6f) {
+                // Degenerate frustum, adjacent sides are parallel
+                return this;
+            }
+            float x = (-a.d * b.normal.y + b.d * a.normal.y) / determinant;
+            float y = (-b.d * a.normal.x + a.d * b.normal.x) / determinant;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        bounds.set(minX, minY, maxX - minX, maxY - minY);
+        bounded = true;
+        return this;
+    }
+
+    private void addHalfPlane(float nx, float ny, float d) {
+        halfPlanes.add(nx);
+        halfPlanes.add(ny);
+        halfPlanes.add(d);
+    }
+
+    //
+
+    /**
+     * @param rect the {@link Rectangle} to test
+     * @return whether the rectangle overlaps this region; may report an overlap for rectangles that
+     * only touch one of the region's corners, as no axis separates them */
+    public boolean overlaps(Rectangle rect) {
+        if (bounded && (rect.x > bounds.x + bounds.width || rect.x + rect.width < bounds.x
+                || rect.y > bounds.y + bounds.height || rect.y + rect.height < bounds.y)) {
+            return false;
+        }
+        float[] values = halfPlanes.items;
+        for (int i = 0, n = halfPlanes.size; i < n; i += 3) {
+            float nx = values[i];
+            float ny = values[i + 1];
+            // The rectangle's corner furthest along the normal, if it's outside the half-plane the whole rectangle is
+            float x = nx >= 0 ? rect.x + rect.width : rect.x;
+            float y = ny >= 0 ? rect.y + rect.height : rect.y;
+            if (nx * x + ny * y + values[i + 2] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return the bounding {@link Rectangle} of this region, meaningless if the region is unbounded */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /** @return whether this region is bounded, which is false only for degenerate frustums */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+}
@@ -0,0 +1,166 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Emits the {@link QuadTreeItem}s of a {@link QuadTreeRoot} one at a time, in exact order of distance from a point,
+ * through a best-first traversal: nodes and items wait in a binary heap keyed by their distance from the point,
+ * and a node is only opened once it's the closest entry left. Callers that stop after the first few items,
+ * such as a closest threat search or a LOD pass, never pay for the rest of the tree.
+ * Obtained through {@link QuadTreeRoot}'s nearest() method, which reuses a single instance, so it's only valid
+ * until the next call to said method, and as long as the tree isn't modified.
+ * Distances are measured to the closest point of each item's object bounds, and are 0 for items containing the point.
+ * @author Aret3Dev */
+public class DistanceQuery<T> {
+
+    private static final int ALL_CATEGORIES = -1;
+
+    private Object[] entries = new Object[32];
+    private float[] keys = new float[32];
+    private int size;
+    private float x, y;
+    private int categoryMask;
+    private float distance;
+
+    DistanceQuery() {
+    }
+
+    //
+
+    /**
+     * Clears the traversal and starts a new one around the given point.
+     * Called by {@link QuadTreeRoot}'s nearest(), should not be called under any other circumstance. */
+    void reset(float x, float y, int categoryMask) {
+        for (int i = 0; i < size; i++) {
+            entries[i] = null;
+        }
+        size = 0;
+        this.x = x;
+        this.y = y;
+        this.categoryMask = categoryMask;
+        distance = 0;
+    }
+
+    /**
+     * Adds a tree to the traversal; its root is always opened first, as items straddling its bounds may lie outside of them.
+     * Called by {@link QuadTreeRoot}'s nearest(), should not be called under any other circumstance. */
+    void add(QuadTree<T> root) {
+        if (root.subtreeItemCount > 0 && matches(root.subtreeCategoryMask)) {
+            push(root, 0);
+        }
+    }
+
+    /**
+     * Finds the next closest {@link QuadTreeItem}, opening only the nodes that may hold a closer one.
+     * @return the closest item not yet returned, or null once every item was returned */
+    @SuppressWarnings("unchecked")
+    public QuadTreeItem<T> next() {
+        while (size > 0) {
+            float key = keys[0];
+            Object entry = pop();
+            if (entry instanceof QuadTreeItem) {
+                distance = (float) Math.sqrt(key);
+                return (QuadTreeItem<T>) entry;
+            }
+            open((QuadTree<T>) entry);
+        }
+        return null;
+    }
+
+    /** @return the distance of the item last returned by next(), from the query's point */
+    public float getDistance() {
+        return distance;
+    }
+
+    /**
+     * Pushes the node's own items and its non-empty nodes; every item of a node other than a tree's root lies
+     * within the node's bounds, so the distance to said bounds never exceeds the distance to its items. */
+    private void open(QuadTree<T> node) {
+        if (node.pageRoot) {
+            node.root.pager.touch(node);
+        }
+        for (int i = 0, n = node.items.size; i < n; i++) {
+            QuadTreeItem<T> item = node.items.get(i);
+            if (matches(item.getCategoryMask())) {
+                push(item, distance2(item.getObjectBounds()));
+            }
+        }
+        if (node.isSplit()) {
+            openChild(node.northWest);
+            openChild(node.northEast);
+            openChild(node.southWest);
+            openChild(node.southEast);
+        }
+    }
+
+    private void openChild(QuadTree<T> node) {
+        if (node.subtreeItemCount > 0 && matches(node.subtreeCategoryMask)) {
+            push(node, distance2(node.bounds));
+        }
+    }
+
+    private boolean matches(int mask) {
+        return categoryMask == ALL_CATEGORIES || (mask & categoryMask) != 0;
+    }
+
+    private float distance2(Rectangle rect) {
+        float dx = Math.max(0, Math.max(rect.x - x, x - (rect.x + rect.width)));
+        float dy = Math.max(0, Math.max(rect.y - y, y - (rect.y + rect.height)));
+        return dx * dx + dy * dy;
+    }
+
+    //
+
+    private void push(Object entry, float key) {
+        if (size == entries.length) {
+            Object[] newEntries = new Object[size * 2];
+            float[] newKeys = new float[size * 2];
+            System.arraycopy(entries, 0, newEntries, 0, size);
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            entries = newEntries;
+            keys = newKeys;
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            entries[index] = entries[parent];
+            keys[index] = keys[parent];
+            index = parent;
+        }
+        entries[index] = entry;
+        keys[index] = key;
+    }
+
+    private Object pop() {
+        Object top = entries[0];
+        int last = --size;
+        Object entry = entries[last];
+        float key = keys[last];
+        entries[last] = null;
+        int index = 0;
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= last) {
+                break;
+            }
+            if (child + 1 < last && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            entries[index] = entries[child];
+            keys[index] = keys[child];
+            index = child;
+        }
+        if (last > 0) {
+            entries[index] = entry;
+            keys[index] = key;
+        }
+        return top;
+    }
+
+}
@@ -0,0 +1,443 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * A dynamic bounding volume hierarchy, an alternative {@link SpatialIndex} to the {@link QuadTreeRoot}.
+ * Unlike the {@link QuadTree}, it has no fixed bounds, so no item is ever rejected, and it adapts to
+ * very uneven object sizes; every {@link QuadTreeItem} is stored in its own leaf, by its fat bounds.
+ * Leaves are inserted next to the sibling that least increases the tree's perimeter, and the tree is
+ * kept balanced through rotations, so that its height stays logarithmic as items get inserted, updated and removed.
+ * Uses {@link Pool} implementations through {@link PoolDynamicAABBTreeNode} and {@link PoolQuadTreeItem} for efficient memory usage.
+ * @author Aret3Dev */
+public class DynamicAABBTree<T> implements SpatialIndex<T> {
+
+    private DynamicAABBTreeNode<T> rootNode;
+    private float velocityMultiplier = 2f;
+    private final PoolDynamicAABBTreeNode<T> nodesPool;
+    private final PoolQuadTreeItem<T> itemsPool;
+    private final Array<QuadTreeItem<T>> retrievedItems;
+    private final Array<DynamicAABBTreeNode<T>> stack;
+    private final QuadTreeItemSorter<T> sorter;
+
+    public DynamicAABBTree() {
+        this(32);
+    }
+
+    public DynamicAABBTree(int poolsSize) {
+        nodesPool = new PoolDynamicAABBTreeNode<>();
+        nodesPool.fill(poolsSize * 2);
+        itemsPool = new PoolQuadTreeItem<>(this);
+        itemsPool.fill(poolsSize);
+        retrievedItems = new Array<>(poolsSize);
+        stack = new Array<>(32);
+        sorter = new QuadTreeItemSorter<>(poolsSize);
+    }
+
+    //
+
+    /** Frees every node and {@link QuadTreeItem} of the tree. */
+    @Override
+    public void clear() {
+        retrievedItems.clear();
+        if (rootNode == null) {
+            return;
+        }
+        stack.clear();
+        stack.add(rootNode);
+        while (stack.size > 0) {
+            DynamicAABBTreeNode<T> node = stack.pop();
+            if (node.isLeaf()) {
+                itemsPool.free(node.item);
+            }
+            else {
+                stack.add(node.child1);
+                stack.add(node.child2);
+            }
+            nodesPool.free(node);
+        }
+        rootNode = null;
+    }
+
+    /**
+     * Inserts a {@link QuadTreeItem} into a new leaf of the tree.
+     * @param item the item to add into the tree
+     * @return whether the item was added or not, false only if it's already stored in the tree,
+     * in which case it's left untouched */
+    @Override
+    public boolean insert(QuadTreeItem<T> item) {
+        if (item.leaf != null) {
+            return false;
+        }
+        DynamicAABBTreeNode<T> leaf = nodesPool.obtain();
+        leaf.item = item;
+        leaf.bounds.set(item.getFatBounds());
+        item.leaf = leaf;
+        insertLeaf(leaf);
+        return true;
+    }
+
+    /**
+     * Removes a {@link QuadTreeItem} from the tree and frees it through {@link PoolQuadTreeItem}.
+     * @param item the item to remove
+     * @return whether the item was stored in the tree */
+    @Override
+    public boolean remove(QuadTreeItem<T> item) {
+        if (!detach(item)) {
+            return false;
+        }
+        itemsPool.free(item);
+        return true;
+    }
+
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds) {
+        return update(item, objectBounds, 0, 0);
+    }
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the tree.
+     * The item's leaf is only reinserted once its new bounds leave its fat bounds, in which case
+     * the fat bounds are rebuilt around the new bounds through the item's margin, and swept
+     * along the object's velocity times the velocity multiplier.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @param velocityX the object's horizontal movement per update
+     * @param velocityY the object's vertical movement per update
+     * @return whether the item is still stored in the tree, always true */
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds, float velocityX, float velocityY) {
+        item.setObjectBounds(objectBounds);
+        if (item.leaf != null && item.fitsFatBounds()) {
+            return true;
+        }
+        detach(item);
+        item.fatten(velocityX, velocityY, velocityMultiplier);
+        return insert(item);
+    }
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose fat bounds overlap the area, using the tree's
+     * internal {@link Array} for efficient memory usage. Said {@link Array} is cleared before retrieval.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
+    @Override
+    public Array<QuadTreeItem<T>> retrieve(Rectangle area) {
+        retrievedItems.clear();
+        if (rootNode == null) {
+            return retrievedItems;
+        }
+        stack.clear();
+        stack.add(rootNode);
+        while (stack.size > 0) {
+            DynamicAABBTreeNode<T> node = stack.pop();
+            if (!node.bounds.overlaps(area)) {
+                continue;
+            }
+            if (node.isLeaf()) {
+                retrievedItems.add(node.item);
+            }
+            else {
+                stack.add(node.child1);
+                stack.add(node.child2);
+            }
+        }
+        return retrievedItems;
+    }
+
+    @Override
+    public Array<QuadTreeItem<T>> retrieveSorted(Rectangle area) {
+        return sorter.sort(retrieve(area));
+    }
+
+    @Override
+    public Array<QuadTreeItem<T>> retrieveTight(Rectangle area) {
+        Array<QuadTreeItem<T>> list = retrieve(area);
+        int size = 0;
+        for (int i = 0, n = list.size; i < n; i++) {
+            QuadTreeItem<T> item = list.get(i);
+            if (item.getObjectBounds().overlaps(area)) {
+                list.set(size++, item);
+            }
+        }
+        list.truncate(size);
+        return list;
+    }
+
+    //
+
+    /**
+     * Obtains a {@link QuadTreeItem} from {@link PoolQuadTreeItem}, for efficient memory usage.
+     * This should be called from within your application.
+     * @return a newly freed {@link QuadTreeItem} */
+    @Override
+    public QuadTreeItem<T> obtainItem() {
+        return itemsPool.obtain();
+    }
+
+    /**
+     * Removes a {@link QuadTreeItem}'s leaf from the tree, without freeing the item.
+     * @return whether the item was stored in the tree */
+    private boolean detach(QuadTreeItem<T> item) {
+        DynamicAABBTreeNode<T> leaf = item.leaf;
+        if (leaf == null || leaf.item != item) {
+            return false;
+        }
+        removeLeaf(leaf);
+        nodesPool.free(leaf);
+        item.leaf = null;
+        return true;
+    }
+
+    /**
+     * Inserts a leaf next to the sibling that minimizes the increase of the tree's perimeter,
+     * then refits and balances its ancestors. */
+    private void insertLeaf(DynamicAABBTreeNode<T> leaf) {
+        if (rootNode == null) {
+            rootNode = leaf;
+            leaf.parent = null;
+            return;
+        }
+
+        Rectangle leafBounds = leaf.bounds;
+        DynamicAABBTreeNode<T> sibling = rootNode;
+        while (!sibling.isLeaf()) {
+            float perimeter = perimeter(sibling.bounds);
+            float combinedPerimeter = unionPerimeter(sibling.bounds, leafBounds);
+            // Cost of creating a new parent for this node and the new leaf
+            float cost = 2f * combinedPerimeter;
+            // Minimum cost of pushing the leaf further down the tree
+            float inheritanceCost = 2f * (combinedPerimeter - perimeter);
+            float cost1 = descendCost(sibling.child1, leafBounds) + inheritanceCost;
+            float cost2 = descendCost(sibling.child2, leafBounds) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            sibling = cost1 < cost2 ? sibling.child1 : sibling.child2;
+        }
+
+        DynamicAABBTreeNode<T> oldParent = sibling.parent;
+        DynamicAABBTreeNode<T> newParent = nodesPool.obtain();
+        newParent.parent = oldParent;
+        setUnion(newParent.bounds, leafBounds, sibling.bounds);
+        newParent.height = sibling.height + 1;
+        if (oldParent != null) {
+            if (oldParent.child1 == sibling) oldParent.child1 = newParent;
+            else oldParent.child2 = newParent;
+        }
+        else {
+            rootNode = newParent;
+        }
+        newParent.child1 = sibling;
+        newParent.child2 = leaf;
+        sibling.parent = newParent;
+        leaf.parent = newParent;
+
+        refit(leaf.parent);
+    }
+
+    /** Removes a leaf from the tree, replacing its parent with its sibling, then refits and balances its ancestors. */
+    private void removeLeaf(DynamicAABBTreeNode<T> leaf) {
+        if (leaf == rootNode) {
+            rootNode = null;
+            return;
+        }
+
+        DynamicAABBTreeNode<T> parent = leaf.parent;
+        DynamicAABBTreeNode<T> grandParent = parent.parent;
+        DynamicAABBTreeNode<T> sibling = parent.child1 == leaf ? parent.child2 : parent.child1;
+        if (grandParent != null) {
+            if (grandParent.child1 == parent) grandParent.child1 = sibling;
+            else grandParent.child2 = sibling;
+            sibling.parent = grandParent;
+            nodesPool.free(parent);
+            refit(grandParent);
+        }
+        else {
+            rootNode = sibling;
+            sibling.parent = null;
+            nodesPool.free(parent);
+        }
+    }
+
+    /** Walks from the given node up to the root, balancing each node and recomputing its height and bounds. */
+    private void refit(DynamicAABBTreeNode<T> node) {
+        while (node != null) {
+            node = balance(node);
+            DynamicAABBTreeNode<T> child1 = node.child1;
+            DynamicAABBTreeNode<T> child2 = node.child2;
+            node.height = 1 + Math.max(child1.height, child2.height);
+            setUnion(node.bounds, child1.bounds, child2.bounds);
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Performs a left or right rotation if the given node is imbalanced,
+     * promoting its taller child's taller child.
+     * @return the node now standing in the given node's place */
+    private DynamicAABBTreeNode<T> balance(DynamicAABBTreeNode<T> a) {
+        if (a.isLeaf() || a.height < 2) {
+            return a;
+        }
+
+        DynamicAABBTreeNode<T> b = a.child1;
+        DynamicAABBTreeNode<T> c = a.child2;
+        int balance = c.height - b.height;
+
+        // Rotate c up
+        if (balance > 1) {
+            DynamicAABBTreeNode<T> f = c.child1;
+            DynamicAABBTreeNode<T> g = c.child2;
+            c.child1 = a;
+            c.parent = a.parent;
+            a.parent = c;
+            replaceChild(c.parent, a, c);
+            if (f.height > g.height) {
+                c.child2 = f;
+                a.child2 = g;
+                g.parent = a;
+                setUnion(a.bounds, b.bounds, g.bounds);
+                setUnion(c.bounds, a.bounds, f.bounds);
+                a.height = 1 + Math.max(b.height, g.height);
+                c.height = 1 + Math.max(a.height, f.height);
+            }
+            else {
+                c.child2 = g;
+                a.child2 = f;
+                f.parent = a;
+                setUnion(a.bounds, b.bounds, f.bounds);
+                setUnion(c.bounds, a.bounds, g.bounds);
+                a.height = 1 + Math.max(b.height, f.height);
+                c.height = 1 + Math.max(a.height, g.height);
+            }
+            return c;
+        }
+
+        // Rotate b up
+        if (balance < -1) {
+            DynamicAABBTreeNode<T> d = b.child1;
+            DynamicAABBTreeNode<T> e = b.child2;
+            b.child1 = a;
+            b.parent = a.parent;
+            a.parent = b;
+            replaceChild(b.parent, a, b);
+            if (d.height > e.height) {
+                b.child2 = d;
+                a.child1 = e;
+                e.parent = a;
+                setUnion(a.bounds, c.bounds, e.bounds);
+                setUnion(b.bounds, a.bounds, d.bounds);
+                a.height = 1 + Math.max(c.height, e.height);
+                b.height = 1 + Math.max(a.height, d.height);
+            }
+            else {
+                b.child2 = e;
+                a.child1 = d;
+                d.parent = a;
+                setUnion(a.bounds, c.bounds, d.bounds);
+                setUnion(b.bounds, a.bounds, e.bounds);
+                a.height = 1 + Math.max(c.height, d.height);
+                b.height = 1 + Math.max(a.height, e.height);
+            }
+            return b;
+        }
+
+        return a;
+    }
+
+    private void replaceChild(DynamicAABBTreeNode<T> parent, DynamicAABBTreeNode<T> oldChild, DynamicAABBTreeNode<T> newChild) {
+        if (parent == null) {
+            rootNode = newChild;
+        }
+        else if (parent.child1 == oldChild) {
+            parent.child1 = newChild;
+        }
+        else {
+            parent.child2 = newChild;
+        }
+    }
+
+    /** @return the cost of descending into the given node to insert a leaf with the given bounds */
+    private static float descendCost(DynamicAABBTreeNode<?> node, Rectangle leafBounds) {
+        float combinedPerimeter = unionPerimeter(node.bounds, leafBounds);
+        if (node.isLeaf()) {
+            return combinedPerimeter;
+        }
+        return combinedPerimeter - perimeter(node.bounds);
+    }
+
+    private static float perimeter(Rectangle rect) {
+        return 2f * (rect.width + rect.height);
+    }
+
+    private static float unionPerimeter(Rectangle a, Rectangle b) {
+        float width = Math.max(a.x + a.width, b.x + b.width) - Math.min(a.x, b.x);
+        float height = Math.max(a.y + a.height, b.y + b.height) - Math.min(a.y, b.y);
+        return 2f * (width + height);
+    }
+
+    /** Sets the out {@link Rectangle} to the union of a and b; out may be either of them. */
+    private static void setUnion(Rectangle out, Rectangle a, Rectangle b) {
+        float minX = Math.min(a.x, b.x);
+        float minY = Math.min(a.y, b.y);
+        float maxX = Math.max(a.x + a.width, b.x + b.width);
+        float maxY = Math.max(a.y + a.height, b.y + b.height);
+        out.set(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    //
+
+    /** Render this tree's nodes; leaves are rendered in cyan, every other node by its height. */
+    @Override
+    public void render(ShapeRenderer shapeRenderer) {
+        if (rootNode == null) {
+            return;
+        }
+        stack.clear();
+        stack.add(rootNode);
+        while (stack.size > 0) {
+            DynamicAABBTreeNode<T> node = stack.pop();
+            if (node.isLeaf()) {
+                shapeRenderer.setColor(Color.CYAN);
+            }
+            else {
+                stack.add(node.child1);
+                stack.add(node.child2);
+                switch (node.height % 4) {
+                    case 0:
+                        shapeRenderer.setColor(Color.ORANGE);
+                        break;
+                    case 1:
+                        shapeRenderer.setColor(Color.YELLOW);
+                        break;
+                    case 2:
+                        shapeRenderer.setColor(Color.RED);
+                        break;
+                    default:
+                        shapeRenderer.setColor(Color.GREEN);
+                }
+            }
+            Rectangle bounds = node.bounds;
+            shapeRenderer.rect(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+    }
+
+    /** @return the height of the tree, 0 when it holds a single item or none */
+    public int getHeight() {
+        return rootNode == null ? 0 : rootNode.height;
+    }
+
+    public float getVelocityMultiplier() {
+        return velocityMultiplier;
+    }
+
+    public void setVelocityMultiplier(float velocityMultiplier) {
+        this.velocityMultiplier = velocityMultiplier;
+    }
+
+}
@@ -0,0 +1,39 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Represents a single node in the {@link DynamicAABBTree}; leaves hold a single {@link QuadTreeItem}
+ * and its fat bounds, while every other node has exactly two children and the bounds enclosing both.
+ * Implements the {@link Pool.Poolable} interface for efficient memory usage.
+ * @author Aret3Dev */
+public class DynamicAABBTreeNode<T> implements Pool.Poolable {
+
+    DynamicAABBTreeNode<T> parent;
+    DynamicAABBTreeNode<T> child1;
+    DynamicAABBTreeNode<T> child2;
+    QuadTreeItem<T> item;
+    int height;
+    final Rectangle bounds = new Rectangle();
+
+    /**
+     * Resets this {@link DynamicAABBTreeNode} to its default state for later use, for efficient memory usage.
+     * This method is automatically called by {@link DynamicAABBTree}'s {@link Pool}, and should not
+     * be used under any other circumstance. */
+    @Override
+    public void reset() {
+        parent = null;
+        child1 = null;
+        child2 = null;
+        item = null;
+        height = 0;
+        bounds.set(0, 0, 0, 0);
+    }
+
+    /** @return whether this node is a leaf, holding a {@link QuadTreeItem} */
+    boolean isLeaf() {
+        return child1 == null;
+    }
+
+}
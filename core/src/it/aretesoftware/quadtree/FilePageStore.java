@@ -0,0 +1,42 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+
+/**
+ * A {@link PageStore} writing every page to its own file, inside the given directory;
+ * meant for local or external storage, which is unavailable on GWT.
+ * @author Aret3Dev */
+public class FilePageStore implements PageStore {
+
+    private final FileHandle directory;
+
+    /** @param directory the directory the pages are written into, created as needed */
+    public FilePageStore(FileHandle directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void write(int page, ByteArray bytes) {
+        file(page).writeBytes(bytes.items, 0, bytes.size, false);
+    }
+
+    @Override
+    public void read(int page, ByteArray bytes) {
+        FileHandle file = file(page);
+        int length = (int) file.length();
+        bytes.clear();
+        bytes.ensureCapacity(length);
+        bytes.size = file.readBytes(bytes.items, 0, length);
+    }
+
+    @Override
+    public void remove(int page) {
+        file(page).delete();
+    }
+
+    private FileHandle file(int page) {
+        return directory.child(page + ".page");
+    }
+
+}
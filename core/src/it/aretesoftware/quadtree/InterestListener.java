@@ -0,0 +1,26 @@
+package it.aretesoftware.quadtree;
+
+/**
+ * Receives the events of an {@link InterestObserver}, every time its {@link InterestManager} updates.
+ * @author Aret3Dev */
+public interface InterestListener<T> {
+
+    /**
+     * Called when an object enters the observer's view.
+     * @param observer the observer whose view changed
+     * @param object the object that entered the view */
+    void onEnter(InterestObserver<T> observer, T object);
+
+    /**
+     * Called for every object that was already in the observer's view, and still is.
+     * @param observer the observer whose view is being updated
+     * @param object the object that stayed in the view */
+    void onStay(InterestObserver<T> observer, T object);
+
+    /**
+     * Called when an object leaves the observer's view, or is no longer in the tree.
+     * @param observer the observer whose view changed
+     * @param object the object that left the view */
+    void onLeave(InterestObserver<T> observer, T object);
+
+}
@@ -0,0 +1,124 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Area of interest management on top of a {@link QuadTreeRoot}: {@link InterestObserver}s register a view
+ * {@link Rectangle}, and on every update() they're told which objects entered, stayed in, or left their view,
+ * through their {@link InterestListener}. Meant for deciding which objects to replicate to each player.
+ * Every node of the tree is stamped with the version it last changed at, so an observer's visible objects
+ * are only recomputed if its view changed, or if any node under its view changed since its last update;
+ * any other observer just gets its stay events.
+ * Objects are compared through equals() and hashCode(), and are reported if their bounds overlap the view.
+ * @author Aret3Dev */
+public class InterestManager<T> {
+
+    private final QuadTreeRoot<T> root;
+    private final Array<InterestObserver<T>> observers = new Array<>();
+    private int recomputedObservers;
+
+    public InterestManager(QuadTreeRoot<T> root) {
+        this.root = root;
+    }
+
+    //
+
+    /**
+     * Registers a new observer; its visible objects are computed on the next update.
+     * @param view the {@link Rectangle} area the observer is interested in, which is copied
+     * @param listener the listener receiving the observer's events
+     * @return the new observer */
+    public InterestObserver<T> addObserver(Rectangle view, InterestListener<T> listener) {
+        InterestObserver<T> observer = new InterestObserver<>(view, listener);
+        observers.add(observer);
+        return observer;
+    }
+
+    /**
+     * Unregisters an observer, without any leave event for its visible objects.
+     * @param observer the observer to remove
+     * @return whether the observer was registered */
+    public boolean removeObserver(InterestObserver<T> observer) {
+        return observers.removeValue(observer, true);
+    }
+
+    /**
+     * Sends every observer its events for this tick; should be called once the tree is up to date,
+     * such as after all of the tick's insertions, removals and updates. */
+    public void update() {
+        recomputedObservers = 0;
+        boolean hasStaticLayer = root.hasStaticLayer();
+        for (int i = 0, n = observers.size; i < n; i++) {
+            InterestObserver<T> observer = observers.get(i);
+            Rectangle view = observer.getView();
+            boolean changed = observer.viewChanged
+                    || root.modifiedSince(observer.version, view)
+                    || (hasStaticLayer && root.getStaticLayer().modifiedSince(observer.staticVersion, view));
+            if (changed) {
+                recompute(observer);
+                recomputedObservers++;
+            }
+            else {
+                stay(observer);
+            }
+            observer.viewChanged = false;
+            observer.version = root.version;
+            if (hasStaticLayer) {
+                observer.staticVersion = root.getStaticLayer().version;
+            }
+        }
+    }
+
+    /** Retrieves the observer's visible objects again, comparing them against the previous ones. */
+    private void recompute(InterestObserver<T> observer) {
+        InterestListener<T> listener = observer.getListener();
+        ObjectSet<T> visible = observer.visible;
+        ObjectSet<T> nextVisible = observer.nextVisible;
+        nextVisible.clear();
+
+        Array<QuadTreeItem<T>> found = root.retrieveTight(observer.getView());
+        for (int i = 0, n = found.size; i < n; i++) {
+            T object = found.get(i).getObject();
+            if (!nextVisible.add(object)) {
+                continue;
+            }
+            if (visible.contains(object)) {
+                listener.onStay(observer, object);
+            }
+            else {
+                listener.onEnter(observer, object);
+            }
+        }
+        for (T object : visible) {
+            if (!nextVisible.contains(object)) {
+                listener.onLeave(observer, object);
+            }
+        }
+
+        visible.clear();
+        observer.visible = nextVisible;
+        observer.nextVisible = visible;
+    }
+
+    private void stay(InterestObserver<T> observer) {
+        InterestListener<T> listener = observer.getListener();
+        for (T object : observer.visible) {
+            listener.onStay(observer, object);
+        }
+    }
+
+    //
+
+    /** @return the registered observers; should not be modified */
+    public Array<InterestObserver<T>> getObservers() {
+        return observers;
+    }
+
+    /** @return how many observers had their visible objects recomputed during the last update */
+    public int getRecomputedObservers() {
+        return recomputedObservers;
+    }
+
+}
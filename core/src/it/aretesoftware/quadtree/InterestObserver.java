@@ -0,0 +1,51 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * An observer registered to an {@link InterestManager}, such as a connected player, along with the
+ * {@link Rectangle} view it's interested in and the objects currently in said view.
+ * Obtained through {@link InterestManager}'s addObserver() method.
+ * @author Aret3Dev */
+public class InterestObserver<T> {
+
+    private final Rectangle view = new Rectangle();
+    private final InterestListener<T> listener;
+    ObjectSet<T> visible = new ObjectSet<>();
+    ObjectSet<T> nextVisible = new ObjectSet<>();
+    boolean viewChanged = true;
+    long version, staticVersion;
+
+    InterestObserver(Rectangle view, InterestListener<T> listener) {
+        this.view.set(view);
+        this.listener = listener;
+    }
+
+    //
+
+    /**
+     * Moves or resizes the view; the observer's visible objects are recomputed on the next update.
+     * @param view the new view, which is copied */
+    public void setView(Rectangle view) {
+        if (!this.view.equals(view)) {
+            this.view.set(view);
+            viewChanged = true;
+        }
+    }
+
+    /** @return the view; use setView() to change it */
+    public Rectangle getView() {
+        return view;
+    }
+
+    /** @return the objects in the view as of the last update; should not be modified */
+    public ObjectSet<T> getVisible() {
+        return visible;
+    }
+
+    InterestListener<T> getListener() {
+        return listener;
+    }
+
+}
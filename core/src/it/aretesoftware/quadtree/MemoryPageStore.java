@@ -0,0 +1,52 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * A {@link PageStore} keeping every page as a compact byte array in memory;
+ * a paged out subtree takes a fraction of the memory its nodes and {@link QuadTreeItem}s would.
+ * The arrays of removed pages are kept and reused by the next pages written, so that paging doesn't allocate
+ * once the store is warm.
+ * @author Aret3Dev */
+public class MemoryPageStore implements PageStore {
+
+    private final IntMap<ByteArray> pages = new IntMap<>();
+    private final Array<ByteArray> freeArrays = new Array<>(false, 16);
+    private long size;
+
+    @Override
+    public void write(int page, ByteArray bytes) {
+        remove(page);
+        ByteArray stored = freeArrays.size > 0 ? freeArrays.pop() : new ByteArray(bytes.size);
+        stored.addAll(bytes);
+        pages.put(page, stored);
+        size += stored.size;
+    }
+
+    @Override
+    public void read(int page, ByteArray bytes) {
+        ByteArray stored = pages.get(page);
+        bytes.clear();
+        if (stored != null) {
+            bytes.addAll(stored);
+        }
+    }
+
+    @Override
+    public void remove(int page) {
+        ByteArray stored = pages.remove(page);
+        if (stored != null) {
+            size -= stored.size;
+            stored.clear();
+            freeArrays.add(stored);
+        }
+    }
+
+    /** @return the total size of the stored pages, in bytes */
+    public long getSize() {
+        return size;
+    }
+
+}
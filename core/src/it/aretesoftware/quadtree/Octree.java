@@ -0,0 +1,374 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Represents a single node in the octree, the 3D counterpart of the {@link QuadTree}; will automatically split
+ * into eight more nodes once the amount of {@link OctreeItem}s stored exceeds the maximum amount of items per node.
+ * Will not split once the node's level is greater than or equal than the maximum level.
+ * An item is pushed down into a node only if said node fully contains it, so queries can take every item
+ * of a node lying entirely inside the searched volume without testing them, and skip empty subtrees.
+ * The maximum amount of items per node and maximum level are taken from {@link OctreeRoot}.
+ * Allows typecasting to any class, thus making the system easy to use in any game.
+ * Implements the {@link Pool.Poolable} interface for efficient memory usage.
+ * @author Aret3Dev */
+public class Octree<T> implements Pool.Poolable {
+
+    private static final int OUTSIDE = 0, INTERSECTING = 1, INSIDE = 2;
+
+    int level;
+    int subtreeItemCount;
+    boolean split;
+    OctreeRoot<T> root;
+    Octree<T> parent;
+    final Octree<T>[] children;
+    final Array<OctreeItem<T>> items;
+    final BoundingBox bounds = new BoundingBox();
+    private final Vector3 center = new Vector3();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Octree(int maxItemsPerNode) {
+        children = new Octree[8];
+        items = new Array<>(maxItemsPerNode);
+    }
+
+    //
+
+    /**
+     * Resets this {@link Octree} to its default state for later use, for efficient memory usage.
+     * This method is automatically called by {@link OctreeRoot}'s {@link Pool}, and should not
+     * be used under any other circumstance. */
+    @Override
+    public void reset() {
+        clear();
+        bounds.inf();
+        level = 0;
+        root = null;
+        parent = null;
+    }
+
+    /**
+     * Clears this {@link Octree} by freeing its associated items & nodes.
+     * Should not be used under any other circumstance, other than {@link OctreeRoot}'s own implementation of clear(). */
+    protected void clear() {
+        root.freeAllItems(items);
+        items.clear();
+        subtreeItemCount = 0;
+
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                root.freeNode(children[i]);
+                children[i] = null;
+            }
+            split = false;
+        }
+    }
+
+    //
+
+    /**
+     * Inserts an {@link OctreeItem} into this {@link Octree}, pushing it down into a node only if said node fully contains it.
+     * @param item the item to add into this {@link Octree}
+     * @return whether the item was added or not */
+    protected boolean insert(OctreeItem<T> item) {
+        if (!bounds.intersects(item.bounds)) {
+            return false;
+        }
+        place(item);
+        return true;
+    }
+
+    private void place(OctreeItem<T> item) {
+        subtreeItemCount++;
+        if (split) {
+            Octree<T> node = nodeContaining(item.bounds);
+            if (node != null) {
+                node.place(item);
+                return;
+            }
+        }
+
+        items.add(item);
+        item.node = this;
+        if (items.size <= root.getMaxItemsPerNode() || level >= root.getMaxLevel()) {
+            return;
+        }
+
+        if (!split) {
+            split();
+        }
+
+        int i = 0;
+        while (i < items.size) {
+            OctreeItem<T> arrayItem = items.get(i);
+            Octree<T> node = nodeContaining(arrayItem.bounds);
+            if (node != null) {
+                items.removeIndex(i);
+                node.place(arrayItem);
+            }
+            else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * The octant of the box's minimum corner is the only candidate, as it must match the octant of its maximum corner.
+     * @param box the {@link BoundingBox} to look for
+     * @return the node among this {@link Octree}'s eight that fully contains the box, or null if none does */
+    Octree<T> nodeContaining(BoundingBox box) {
+        if (!bounds.contains(box)) {
+            return null;
+        }
+        Vector3 min = box.min, max = box.max;
+        int octant = octant(min.x, min.y, min.z);
+        if (octant != octant(max.x, max.y, max.z)) {
+            return null;
+        }
+        return children[octant];
+    }
+
+    private int octant(float x, float y, float z) {
+        return (x >= center.x ? 1 : 0) | (y >= center.y ? 2 : 0) | (z >= center.z ? 4 : 0);
+    }
+
+    /**
+     * Detaches an {@link OctreeItem} from this {@link Octree}'s own items, without freeing it.
+     * @param item the item to detach
+     * @return whether the item was found and detached */
+    boolean detach(OctreeItem<T> item) {
+        if (!items.removeValue(item, true)) {
+            return false;
+        }
+        item.node = null;
+        for (Octree<T> node = this; node != null; node = node.parent) {
+            node.subtreeItemCount--;
+        }
+        return true;
+    }
+
+    /**
+     * Splits this {@link Octree} into eight more nodes, which are obtained from {@link OctreeRoot}'s {@link Pool};
+     * the node at index i lies on the upper half of the x, y and z axes if its bits 1, 2 and 4 are set. */
+    private void split() {
+        Vector3 min = bounds.min, max = bounds.max;
+        bounds.getCenter(center);
+        for (int i = 0; i < 8; i++) {
+            Octree<T> node = root.obtainNode();
+            node.bounds.min.set((i & 1) == 0 ? min.x : center.x, (i & 2) == 0 ? min.y : center.y, (i & 4) == 0 ? min.z : center.z);
+            node.bounds.max.set((i & 1) == 0 ? center.x : max.x, (i & 2) == 0 ? center.y : max.y, (i & 4) == 0 ? center.z : max.z);
+            node.bounds.update();
+            node.level = level + 1;
+            node.parent = this;
+            children[i] = node;
+        }
+        split = true;
+    }
+
+    //
+
+    /**
+     * Returns all {@link OctreeItem}s whose bounds intersect the {@link BoundingBox} area.
+     * @param list the {@link Array} any items found will be added into
+     * @param area the {@link BoundingBox} area to search in the tree
+     * @return list of {@link OctreeItem} found in the defined {@link BoundingBox} area */
+    protected Array<OctreeItem<T>> retrieve(Array<OctreeItem<T>> list, BoundingBox area) {
+        for (int i = 0, n = items.size; i < n; i++) {
+            OctreeItem<T> item = items.get(i);
+            if (area.intersects(item.bounds)) {
+                list.add(item);
+            }
+        }
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                Octree<T> node = children[i];
+                if (node.subtreeItemCount == 0 || !area.intersects(node.bounds)) {
+                    continue;
+                }
+                if (area.contains(node.bounds)) {
+                    node.addAll(list);
+                }
+                else {
+                    node.retrieve(list, area);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns all {@link OctreeItem}s whose bounds intersect the sphere.
+     * @param list the {@link Array} any items found will be added into
+     * @param center the sphere's center
+     * @param radius the sphere's radius
+     * @return list of {@link OctreeItem} found in the sphere */
+    protected Array<OctreeItem<T>> retrieve(Array<OctreeItem<T>> list, Vector3 center, float radius) {
+        float radius2 = radius * radius;
+        for (int i = 0, n = items.size; i < n; i++) {
+            OctreeItem<T> item = items.get(i);
+            if (classify(center, radius2, item.bounds) != OUTSIDE) {
+                list.add(item);
+            }
+        }
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                Octree<T> node = children[i];
+                if (node.subtreeItemCount == 0) {
+                    continue;
+                }
+                int side = classify(center, radius2, node.bounds);
+                if (side == INSIDE) {
+                    node.addAll(list);
+                }
+                else if (side == INTERSECTING) {
+                    node.retrieve(list, center, radius);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns all {@link OctreeItem}s whose bounds intersect the {@link Frustum}, such as a camera's.
+     * @param list the {@link Array} any items found will be added into
+     * @param frustum the {@link Frustum} to search in the tree, which should be up to date
+     * @return list of {@link OctreeItem} found in the defined {@link Frustum} */
+    protected Array<OctreeItem<T>> retrieve(Array<OctreeItem<T>> list, Frustum frustum) {
+        for (int i = 0, n = items.size; i < n; i++) {
+            OctreeItem<T> item = items.get(i);
+            if (classify(frustum, item.bounds) != OUTSIDE) {
+                list.add(item);
+            }
+        }
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                Octree<T> node = children[i];
+                if (node.subtreeItemCount == 0) {
+                    continue;
+                }
+                int side = classify(frustum, node.bounds);
+                if (side == INSIDE) {
+                    node.addAll(list);
+                }
+                else if (side == INTERSECTING) {
+                    node.retrieve(list, frustum);
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Adds the items of this {@link Octree} and of all of its nodes, without testing them. */
+    private void addAll(Array<OctreeItem<T>> list) {
+        list.addAll(items);
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                if (children[i].subtreeItemCount > 0) {
+                    children[i].addAll(list);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the box's corners closest to and furthest from the sphere's center.
+     * @return whether the box lies outside of, intersects, or lies inside the sphere */
+    private static int classify(Vector3 center, float radius2, BoundingBox box) {
+        Vector3 min = box.min, max = box.max;
+        float near = distance2(center.x, min.x, max.x, true)
+                + distance2(center.y, min.y, max.y, true)
+                + distance2(center.z, min.z, max.z, true);
+        if (near > radius2) {
+            return OUTSIDE;
+        }
+        float far = distance2(center.x, min.x, max.x, false)
+                + distance2(center.y, min.y, max.y, false)
+                + distance2(center.z, min.z, max.z, false);
+        return far <= radius2 ? INSIDE : INTERSECTING;
+    }
+
+    /** @return the squared distance along one axis between the value and the interval's nearest or furthest point */
+    private static float distance2(float value, float min, float max, boolean nearest) {
+        float distance;
+        if (nearest) {
+            distance = value < min ? min - value : value > max ? value - max : 0;
+        }
+        else {
+            distance = Math.max(value - min, max - value);
+        }
+        return distance * distance;
+    }
+
+    /**
+     * Tests, for every plane, the box's corner furthest along the plane's normal and the one furthest against it;
+     * the frustum's planes face inwards.
+     * @return whether the box lies outside of, intersects, or lies inside the frustum */
+    private static int classify(Frustum frustum, BoundingBox box) {
+        Vector3 min = box.min, max = box.max;
+        int side = INSIDE;
+        Plane[] planes = frustum.planes;
+        for (int i = 0; i < planes.length; i++) {
+            Vector3 normal = planes[i].normal;
+            float d = planes[i].d;
+            float furthest = normal.x * (normal.x >= 0 ? max.x : min.x)
+                    + normal.y * (normal.y >= 0 ? max.y : min.y)
+                    + normal.z * (normal.z >= 0 ? max.z : min.z) + d;
+            if (furthest < 0) {
+                return OUTSIDE;
+            }
+            float nearest = normal.x * (normal.x >= 0 ? min.x : max.x)
+                    + normal.y * (normal.y >= 0 ? min.y : max.y)
+                    + normal.z * (normal.z >= 0 ? min.z : max.z) + d;
+            if (nearest < 0) {
+                side = INTERSECTING;
+            }
+        }
+        return side;
+    }
+
+    //
+
+    /** Render this {@link Octree} and its nodes, if they exist, as wireframe boxes. */
+    public void render(ShapeRenderer shapeRenderer) {
+        if (split) {
+            for (int i = 0; i < 8; i++) {
+                children[i].render(shapeRenderer);
+            }
+        }
+
+        switch (level) {
+            case 0:
+                shapeRenderer.setColor(Color.ORANGE);
+                break;
+            case 1:
+                shapeRenderer.setColor(Color.YELLOW);
+                break;
+            case 2:
+                shapeRenderer.setColor(Color.RED);
+                break;
+            case 3:
+                shapeRenderer.setColor(Color.GREEN);
+                break;
+            case 4:
+                shapeRenderer.setColor(Color.BLUE);
+                break;
+            case 5:
+                shapeRenderer.setColor(Color.MAGENTA);
+                break;
+            default:
+                shapeRenderer.setColor(Color.CYAN);
+        }
+
+        // ShapeRenderer's boxes extend from z towards z - depth
+        shapeRenderer.box(bounds.min.x, bounds.min.y, bounds.max.z,
+                bounds.getWidth(), bounds.getHeight(), bounds.getDepth());
+    }
+
+}
@@ -0,0 +1,46 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The object that gets inserted into the {@link OctreeRoot} and by extension, the {@link Octree}.
+ * Allows typecasting to any class, thus making the system easy to use in any game.
+ * Implements the {@link Pool.Poolable} interface for efficient memory usage.
+ * @author Aret3Dev */
+public class OctreeItem<T> implements Pool.Poolable {
+
+    private T object;
+    final BoundingBox bounds = new BoundingBox();
+    Octree<T> node;
+
+    /**
+     * Call this method once you get an {@link OctreeItem} from {@link OctreeRoot}'s obtainItem() method.
+     * @param object the object to set
+     * @param bounds the object's boundaries, which are copied */
+    public void init(T object, BoundingBox bounds) {
+        this.object = object;
+        this.bounds.set(bounds);
+    }
+
+    /**
+     * Resets this {@link OctreeItem} to its default state for later use, for efficient memory usage.
+     * This method is automatically called by {@link OctreeRoot}'s {@link Pool}, and should not
+     * be used under any other circumstance. */
+    @Override
+    public void reset() {
+        object = null;
+        bounds.inf();
+        node = null;
+    }
+
+    /** @return the stored object */
+    public T getObject() {
+        return object;
+    }
+
+    /** @return the object's bounds; use {@link OctreeRoot}'s update() to change them */
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+}
@@ -0,0 +1,196 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link Octree}'s root node. All operations on the tree should be done through this object.
+ * The 3D counterpart of the {@link QuadTreeRoot}, meant for culling model instances against a camera's {@link Frustum}.
+ * Defines properties that are applied to the entire tree, such as its maximum level and its maximum amount of items per node.
+ * Allows typecasting to any class, thus making the system easy to use in any game.
+ * Uses {@link Pool} implementations through {@link PoolOctree} and {@link PoolOctreeItem} for efficient memory usage.
+ * @author Aret3Dev */
+public class OctreeRoot<T> extends Octree<T> {
+
+    private int maxLevel, maxItemsPerNode;
+    private final PoolOctree<T> octreePool;
+    private final PoolOctreeItem<T> itemsPool;
+    private final Array<OctreeItem<T>> retrievedItems;
+
+    public OctreeRoot(BoundingBox bounds) {
+        this(bounds, 6, 8, 32);
+    }
+
+    public OctreeRoot(BoundingBox bounds, int maxLevel, int maxItemsPerNode, int poolsSize) {
+        super(maxItemsPerNode);
+        super.root = this;
+        this.bounds.set(bounds);
+        this.maxLevel = maxLevel;
+        this.maxItemsPerNode = maxItemsPerNode;
+        octreePool = new PoolOctree<>(this);
+        octreePool.fill(maxItemsPerNode);
+        itemsPool = new PoolOctreeItem<>();
+        itemsPool.fill(poolsSize);
+        retrievedItems = new Array<>(poolsSize);
+    }
+
+    //
+
+    /**
+     * Overrides {@link Octree}'s clear() to also clear {@link OctreeRoot}'s
+     * internal {@link Array} of {@link OctreeItem} used during retrieval. */
+    @Override
+    public void clear() {
+        retrievedItems.clear();
+        super.clear();
+    }
+
+    /**
+     * Overrides {@link Octree}'s insert() to free() said {@link OctreeItem}
+     * in case it couldn't get added, as it lies outside of the tree's bounds.
+     * @param item the item to add into the tree
+     * @return whether the item was added or not */
+    @Override
+    public boolean insert(OctreeItem<T> item) {
+        boolean inserted = super.insert(item);
+        if (!inserted) {
+            itemsPool.free(item);
+        }
+        return inserted;
+    }
+
+    /**
+     * Removes an {@link OctreeItem} from the tree and frees it through {@link PoolOctreeItem}.
+     * @param item the item to remove
+     * @return whether the item was stored in the tree */
+    public boolean remove(OctreeItem<T> item) {
+        Octree<T> node = item.node;
+        if (node == null || node.root != this || !node.detach(item)) {
+            return false;
+        }
+        itemsPool.free(item);
+        return true;
+    }
+
+    /**
+     * Updates the bounds of an {@link OctreeItem} already stored in the tree. The item stays in its node
+     * as long as said node still holds it and none of its nodes fully contains it, otherwise it's inserted
+     * again from the root.
+     * @param item the item to update
+     * @param bounds the object's new boundaries, which are copied
+     * @return whether the item is still stored in the tree, false if it moved outside of the tree's bounds,
+     * in which case it's freed */
+    public boolean update(OctreeItem<T> item, BoundingBox bounds) {
+        Octree<T> node = item.node;
+        if (node == null || node.root != this) {
+            return false;
+        }
+        boolean fits = node == this ? this.bounds.intersects(bounds) : node.bounds.contains(bounds);
+        if (fits && (!node.split || node.nodeContaining(bounds) == null)) {
+            item.bounds.set(bounds);
+            return true;
+        }
+        node.detach(item);
+        item.bounds.set(bounds);
+        return insert(item);
+    }
+
+    //
+
+    /**
+     * Retrieves the {@link OctreeItem}s whose bounds intersect the area, using the tree's internal {@link Array}
+     * for efficient memory usage. Said {@link Array} is cleared before retrieval.
+     * @param area the {@link BoundingBox} area to search in the tree
+     * @return list of {@link OctreeItem} found in the defined {@link BoundingBox} area */
+    public Array<OctreeItem<T>> retrieve(BoundingBox area) {
+        retrievedItems.clear();
+        return retrieve(retrievedItems, area);
+    }
+
+    /**
+     * Retrieves the {@link OctreeItem}s whose bounds intersect the sphere, such as the objects within
+     * an explosion's or a light's range. Uses the tree's internal {@link Array}, which is cleared before retrieval.
+     * @param center the sphere's center
+     * @param radius the sphere's radius
+     * @return list of {@link OctreeItem} found in the sphere */
+    public Array<OctreeItem<T>> retrieve(Vector3 center, float radius) {
+        retrievedItems.clear();
+        return retrieve(retrievedItems, center, radius);
+    }
+
+    /**
+     * Retrieves the {@link OctreeItem}s whose bounds intersect the {@link Frustum}, so that a camera only draws
+     * the model instances it can see. Uses the tree's internal {@link Array}, which is cleared before retrieval.
+     * @param frustum the camera's {@link Frustum}, which should be up to date
+     * @return list of {@link OctreeItem} found in the defined {@link Frustum} */
+    public Array<OctreeItem<T>> retrieve(Frustum frustum) {
+        retrievedItems.clear();
+        return retrieve(retrievedItems, frustum);
+    }
+
+    //
+
+    /**
+     * Obtains an {@link OctreeItem} from {@link PoolOctreeItem}, for efficient memory usage.
+     * This should be called from within your application.
+     * @return a newly freed {@link OctreeItem} */
+    public OctreeItem<T> obtainItem() {
+        return itemsPool.obtain();
+    }
+
+    /**
+     * Frees all {@link OctreeItem}s through {@link PoolOctreeItem}, for efficient memory usage.
+     * Used when the {@link Octree} clears itself, should not be called under any other circumstance.
+     * @param items the {@link Array} of {@link OctreeItem}s to free */
+    void freeAllItems(Array<OctreeItem<T>> items) {
+        itemsPool.freeAll(items);
+    }
+
+    /**
+     * Obtains an {@link Octree} from {@link PoolOctree}, for efficient memory usage.
+     * Used when the {@link Octree} splits, should not be called under any other circumstance.
+     * @return a newly freed {@link Octree} */
+    Octree<T> obtainNode() {
+        return octreePool.obtain();
+    }
+
+    /**
+     * Frees an {@link Octree} through {@link PoolOctree}, for efficient memory usage.
+     * Used when the {@link Octree} clears itself, should not be called under any other circumstance.
+     * @param node the {@link Octree} node to free */
+    void freeNode(Octree<T> node) {
+        octreePool.free(node);
+    }
+
+    //
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public void setMaxLevel(int maxLevel) {
+        this.maxLevel = maxLevel;
+    }
+
+    public int getMaxItemsPerNode() {
+        return maxItemsPerNode;
+    }
+
+    public void setMaxItemsPerNode(int maxItemsPerNode) {
+        this.maxItemsPerNode = maxItemsPerNode;
+    }
+
+    /** @return the tree's bounds */
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+
+    /** @return the amount of items stored in the tree */
+    public int getItemCount() {
+        return subtreeItemCount;
+    }
+
+}
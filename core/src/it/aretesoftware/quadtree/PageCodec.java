@@ -0,0 +1,19 @@
+package it.aretesoftware.quadtree;
+
+/**
+ * Turns the objects stored in a paged {@link QuadTreeRoot} into ints and back, see {@link QuadTreePager};
+ * usually an id into the application's own registry of entities, tiles or props.
+ * @author Aret3Dev */
+public interface PageCodec<T> {
+
+    /**
+     * @param object an object stored in a subtree being paged out
+     * @return the id the object is stored as */
+    int encode(T object);
+
+    /**
+     * @param id an id returned by encode()
+     * @return the object the id stands for, when its subtree is paged back in */
+    T decode(int id);
+
+}
@@ -0,0 +1,28 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.ByteArray;
+
+/**
+ * Holds the byte representation of the subtrees paged out by a {@link QuadTreePager}, each under its own page id.
+ * See {@link MemoryPageStore} and {@link FilePageStore}.
+ * @author Aret3Dev */
+public interface PageStore {
+
+    /**
+     * Stores a page, replacing any page stored under the same id.
+     * @param page the page's id
+     * @param bytes the page's bytes, which may be reused once this method returns */
+    void write(int page, ByteArray bytes);
+
+    /**
+     * Reads a page back.
+     * @param page the page's id
+     * @param bytes the {@link ByteArray} the page's bytes are copied into, after clearing it */
+    void read(int page, ByteArray bytes);
+
+    /**
+     * Discards a page, once it's paged back in or its subtree is cleared.
+     * @param page the page's id */
+    void remove(int page);
+
+}
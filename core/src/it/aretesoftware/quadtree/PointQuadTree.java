@@ -0,0 +1,236 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Represents a single node in the point tree; will automatically split into four more nodes
+ * once the amount of {@link PointQuadTreeItem}s stored exceeds the maximum amount of items per node.
+ * As a point always fits a single quadrant, items are only ever stored by the leaves, and the quadrant
+ * a point belongs to is picked with two comparisons against the node's center; points lying on the center
+ * lines belong to the northern and eastern quadrants.
+ * Will not split once the node's level is greater than or equal than the maximum level.
+ * The maximum amount of items per node and maximum level are taken from {@link PointQuadTreeRoot}.
+ * Implements the {@link Pool.Poolable} interface for efficient memory usage.
+ * @author Aret3Dev */
+public class PointQuadTree<T> implements Pool.Poolable {
+
+    int level;
+    float centerX, centerY;
+    boolean eastEdge, northEdge;
+    PointQuadTreeRoot<T> root;
+    PointQuadTree<T> northWest;
+    PointQuadTree<T> northEast;
+    PointQuadTree<T> southWest;
+    PointQuadTree<T> southEast;
+    final Array<PointQuadTreeItem<T>> items;
+    final Rectangle bounds;
+
+    PointQuadTree(Rectangle bounds, int maxItemsPerNode) {
+        this.bounds = bounds;
+        items = new Array<>(maxItemsPerNode);
+    }
+
+    //
+
+    /**
+     * Resets this {@link PointQuadTree} to its default state for later use, for efficient memory usage.
+     * This method is automatically called by {@link PointQuadTreeRoot}'s {@link Pool}, and should not
+     * be used under any other circumstance. */
+    @Override
+    public void reset() {
+        clear();
+        bounds.set(0, 0, 0, 0);
+        level = 0;
+        eastEdge = false;
+        northEdge = false;
+        root = null;
+    }
+
+    /**
+     * Clears this {@link PointQuadTree} by freeing its associated items & nodes.
+     * Should not be used under any other circumstance, other than {@link PointQuadTreeRoot}'s own implementation of clear(). */
+    protected void clear() {
+        root.freeAllItems(items);
+        items.clear();
+
+        if (northWest != null) {
+            root.freeNode(northWest);
+            root.freeNode(northEast);
+            root.freeNode(southWest);
+            root.freeNode(southEast);
+            northWest = null;
+            northEast = null;
+            southWest = null;
+            southEast = null;
+        }
+    }
+
+    //
+
+    /**
+     * Inserts a {@link PointQuadTreeItem} into the leaf holding its point, splitting said leaf if it gets too full.
+     * The point is expected to lie within this node's bounds, see {@link PointQuadTreeRoot}'s insert().
+     * @param item the item to add into this {@link PointQuadTree} */
+    void place(PointQuadTreeItem<T> item) {
+        PointQuadTree<T> node = this;
+        while (node.northWest != null) {
+            node = node.nodeAt(item.x, item.y);
+        }
+
+        node.items.add(item);
+        item.node = node;
+        if (node.items.size <= root.getMaxItemsPerNode() || node.level >= root.getMaxLevel()) {
+            return;
+        }
+
+        node.split();
+        for (int i = 0, n = node.items.size; i < n; i++) {
+            PointQuadTreeItem<T> arrayItem = node.items.get(i);
+            node.nodeAt(arrayItem.x, arrayItem.y).place(arrayItem);
+        }
+        node.items.clear();
+    }
+
+    /**
+     * @param x the point's horizontal position
+     * @param y the point's vertical position
+     * @return the node among this {@link PointQuadTree}'s four that holds the point */
+    private PointQuadTree<T> nodeAt(float x, float y) {
+        if (y < centerY) {
+            return x < centerX ? southWest : southEast;
+        }
+        return x < centerX ? northWest : northEast;
+    }
+
+    /**
+     * @param x the point's horizontal position
+     * @param y the point's vertical position
+     * @return whether the point would be inserted into this node if it was a leaf of the tree;
+     * a node's right and top edges are excluded, unless they lie on the tree's own, which insertion includes */
+    boolean holds(float x, float y) {
+        Rectangle rootBounds = root.bounds;
+        return x >= bounds.x && y >= bounds.y
+                && (x < bounds.x + bounds.width || (eastEdge && x <= rootBounds.x + rootBounds.width))
+                && (y < bounds.y + bounds.height || (northEdge && y <= rootBounds.y + rootBounds.height));
+    }
+
+    /**
+     * Splits this {@link PointQuadTree} into four more nodes, which are obtained from
+     * {@link PointQuadTreeRoot}'s {@link Pool}. */
+    private void split() {
+        float halfWidth = (bounds.getWidth() * 0.5f);
+        float halfHeight = (bounds.getHeight() * 0.5f);
+        float x = bounds.getX();
+        float y = bounds.getY();
+        int newLevel = level + 1;
+        centerX = x + halfWidth;
+        centerY = y + halfHeight;
+
+        northWest = prepareNode(x, centerY, halfWidth, halfHeight, newLevel, false, northEdge);
+        northEast = prepareNode(centerX, centerY, halfWidth, halfHeight, newLevel, eastEdge, northEdge);
+        southWest = prepareNode(x, y, halfWidth, halfHeight, newLevel, false, false);
+        southEast = prepareNode(centerX, y, halfWidth, halfHeight, newLevel, eastEdge, false);
+    }
+
+    /**
+     * Prepares one of the nodes obtained when splitting.
+     * @param eastEdge whether the node's right edge lies on the tree's own
+     * @param northEdge whether the node's top edge lies on the tree's own */
+    private PointQuadTree<T> prepareNode(float x, float y, float width, float height, int newLevel,
+                                         boolean eastEdge, boolean northEdge) {
+        PointQuadTree<T> node = root.obtainNode();
+        node.bounds.set(x, y, width, height);
+        node.level = newLevel;
+        node.eastEdge = eastEdge;
+        node.northEdge = northEdge;
+        return node;
+    }
+
+    /**
+     * Returns all {@link PointQuadTreeItem}s whose point lies in the area, edges included.
+     * Nodes fully contained by the area add all of their items, without testing them.
+     * @param list the {@link Array} any items found will be added into
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return list of {@link PointQuadTreeItem} found in the defined {@link Rectangle} area */
+    protected Array<PointQuadTreeItem<T>> retrieve(Array<PointQuadTreeItem<T>> list, Rectangle area) {
+        if (area.contains(bounds)) {
+            return addAll(list);
+        }
+        if (northWest != null) {
+            if (touches(northWest.bounds, area)) northWest.retrieve(list, area);
+            if (touches(northEast.bounds, area)) northEast.retrieve(list, area);
+            if (touches(southWest.bounds, area)) southWest.retrieve(list, area);
+            if (touches(southEast.bounds, area)) southEast.retrieve(list, area);
+            return list;
+        }
+        float minX = area.x, minY = area.y;
+        float maxX = area.x + area.width, maxY = area.y + area.height;
+        for (int i = 0, n = items.size; i < n; i++) {
+            PointQuadTreeItem<T> item = items.get(i);
+            if (item.x >= minX && item.x <= maxX && item.y >= minY && item.y <= maxY) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+
+    private Array<PointQuadTreeItem<T>> addAll(Array<PointQuadTreeItem<T>> list) {
+        if (northWest != null) {
+            northWest.addAll(list);
+            northEast.addAll(list);
+            southWest.addAll(list);
+            southEast.addAll(list);
+        }
+        list.addAll(items);
+        return list;
+    }
+
+    /**
+     * Same as {@link Rectangle}'s overlaps(), but rectangles sharing an edge count as overlapping,
+     * since a point on said edge lies in both. */
+    private static boolean touches(Rectangle a, Rectangle b) {
+        return a.x <= b.x + b.width && a.x + a.width >= b.x && a.y <= b.y + b.height && a.y + a.height >= b.y;
+    }
+
+    //
+
+    /** Render this {@link PointQuadTree} and its nodes, if they exist. */
+    public void render(ShapeRenderer shapeRenderer) {
+        if (northWest != null) {
+            northWest.render(shapeRenderer);
+            northEast.render(shapeRenderer);
+            southWest.render(shapeRenderer);
+            southEast.render(shapeRenderer);
+        }
+
+        switch (level) {
+            case 0:
+                shapeRenderer.setColor(Color.ORANGE);
+                break;
+            case 1:
+                shapeRenderer.setColor(Color.YELLOW);
+                break;
+            case 2:
+                shapeRenderer.setColor(Color.RED);
+                break;
+            case 3:
+                shapeRenderer.setColor(Color.GREEN);
+                break;
+            case 4:
+                shapeRenderer.setColor(Color.BLUE);
+                break;
+            case 5:
+                shapeRenderer.setColor(Color.MAGENTA);
+                break;
+            default:
+                shapeRenderer.setColor(Color.CYAN);
+        }
+
+        shapeRenderer.rect(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+}
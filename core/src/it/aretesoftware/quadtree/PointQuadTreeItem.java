@@ -0,0 +1,54 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The object that gets inserted into the {@link PointQuadTreeRoot} and by extension, the {@link PointQuadTree}.
+ * Unlike {@link QuadTreeItem}, it only stores a point, meant for particles, bullets and waypoints.
+ * Allows typecasting to any class, thus making the system easy to use in any game.
+ * Implements the {@link Pool.Poolable} interface for efficient memory usage.
+ * @author Aret3Dev */
+public class PointQuadTreeItem<T> implements Pool.Poolable {
+
+    private T object;
+    float x, y;
+    PointQuadTree<T> node;
+
+    /**
+     * Call this method once you get a {@link PointQuadTreeItem} from {@link PointQuadTreeRoot}'s obtainItem() method.
+     * @param object the object to set
+     * @param x the object's horizontal position
+     * @param y the object's vertical position */
+    public void init(T object, float x, float y) {
+        this.object = object;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Resets this {@link PointQuadTreeItem} to its default state for later use, for efficient memory usage.
+     * This method is automatically called by {@link PointQuadTreeRoot}'s {@link Pool}, and should not
+     * be used under any other circumstance. */
+    @Override
+    public void reset() {
+        object = null;
+        x = 0;
+        y = 0;
+        node = null;
+    }
+
+    /** @return the stored object */
+    public T getObject() {
+        return object;
+    }
+
+    /** @return the object's horizontal position */
+    public float getX() {
+        return x;
+    }
+
+    /** @return the object's vertical position */
+    public float getY() {
+        return y;
+    }
+}
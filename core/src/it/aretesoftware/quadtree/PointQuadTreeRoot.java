@@ -0,0 +1,178 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link PointQuadTree}'s root node. All operations on the tree should be done through this object.
+ * A specialization of the {@link QuadTreeRoot} for objects without an extent, such as particles, bullets and waypoints:
+ * items only store a point, are placed with two comparisons per level rather than rectangle tests, and queries
+ * test points against the searched area.
+ * Allows typecasting to any class, thus making the system easy to use in any game.
+ * Uses {@link Pool} implementations through {@link PoolPointQuadTree} and {@link PoolPointQuadTreeItem} for efficient memory usage.
+ * @author Aret3Dev */
+public class PointQuadTreeRoot<T> extends PointQuadTree<T> {
+
+    private int maxLevel, maxItemsPerNode;
+    private final PoolPointQuadTree<T> quadTreePool;
+    private final PoolPointQuadTreeItem<T> itemsPool;
+    private final Array<PointQuadTreeItem<T>> retrievedItems;
+
+    public PointQuadTreeRoot(Rectangle bounds) {
+        this(bounds, 8, 16, 32);
+    }
+
+    public PointQuadTreeRoot(Rectangle bounds, int maxLevel, int maxItemsPerNode, int poolsSize) {
+        super(new Rectangle(bounds), maxItemsPerNode);
+        super.root = this;
+        eastEdge = true;
+        northEdge = true;
+        this.maxLevel = maxLevel;
+        this.maxItemsPerNode = maxItemsPerNode;
+        quadTreePool = new PoolPointQuadTree<>(this);
+        quadTreePool.fill(maxItemsPerNode);
+        itemsPool = new PoolPointQuadTreeItem<>();
+        itemsPool.fill(poolsSize);
+        retrievedItems = new Array<>(poolsSize);
+    }
+
+    //
+
+    /**
+     * Overrides {@link PointQuadTree}'s clear() to also clear {@link PointQuadTreeRoot}'s
+     * internal {@link Array} of {@link PointQuadTreeItem} used during retrieval. */
+    @Override
+    public void clear() {
+        retrievedItems.clear();
+        super.clear();
+    }
+
+    /**
+     * Inserts a {@link PointQuadTreeItem} into the tree, or frees it if its point lies outside of the tree's bounds.
+     * @param item the item to add into the tree
+     * @return whether the item was added or not */
+    public boolean insert(PointQuadTreeItem<T> item) {
+        if (item.node != null || !bounds.contains(item.x, item.y)) {
+            if (item.node == null) {
+                itemsPool.free(item);
+            }
+            return false;
+        }
+        place(item);
+        return true;
+    }
+
+    /**
+     * Removes a {@link PointQuadTreeItem} from the tree and frees it through {@link PoolPointQuadTreeItem}.
+     * @param item the item to remove
+     * @return whether the item was stored in the tree */
+    public boolean remove(PointQuadTreeItem<T> item) {
+        if (!detach(item)) {
+            return false;
+        }
+        itemsPool.free(item);
+        return true;
+    }
+
+    /**
+     * Moves a {@link PointQuadTreeItem} already stored in the tree. The item stays in its leaf as long as
+     * the new point lies within it, otherwise it's inserted again from the root.
+     * @param item the item to update
+     * @param x the object's new horizontal position
+     * @param y the object's new vertical position
+     * @return whether the item is still stored in the tree, false if it moved outside of the tree's bounds,
+     * in which case it's freed */
+    public boolean update(PointQuadTreeItem<T> item, float x, float y) {
+        PointQuadTree<T> node = item.node;
+        if (node != null && node.root == this && node.holds(x, y)) {
+            item.x = x;
+            item.y = y;
+            return true;
+        }
+        detach(item);
+        item.x = x;
+        item.y = y;
+        return insert(item);
+    }
+
+    /**
+     * Detaches a {@link PointQuadTreeItem} from its leaf, without freeing it.
+     * @return whether the item was stored in the tree */
+    private boolean detach(PointQuadTreeItem<T> item) {
+        PointQuadTree<T> node = item.node;
+        if (node == null || node.root != this || !node.items.removeValue(item, true)) {
+            return false;
+        }
+        item.node = null;
+        return true;
+    }
+
+    /**
+     * Retrieves the {@link PointQuadTreeItem}s whose point lies in the area, edges included, using the tree's
+     * internal {@link Array} for efficient memory usage. Said {@link Array} is cleared before retrieval.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return list of {@link PointQuadTreeItem} found in the defined {@link Rectangle} area */
+    public Array<PointQuadTreeItem<T>> retrieve(Rectangle area) {
+        retrievedItems.clear();
+        return retrieve(retrievedItems, area);
+    }
+
+    //
+
+    /**
+     * Obtains a {@link PointQuadTreeItem} from {@link PoolPointQuadTreeItem}, for efficient memory usage.
+     * This should be called from within your application.
+     * @return a newly freed {@link PointQuadTreeItem} */
+    public PointQuadTreeItem<T> obtainItem() {
+        return itemsPool.obtain();
+    }
+
+    /**
+     * Frees all {@link PointQuadTreeItem}s through {@link PoolPointQuadTreeItem}, for efficient memory usage.
+     * Used when the {@link PointQuadTree} clears itself, should not be called under any other circumstance.
+     * @param items the {@link Array} of {@link PointQuadTreeItem}s to free */
+    void freeAllItems(Array<PointQuadTreeItem<T>> items) {
+        itemsPool.freeAll(items);
+    }
+
+    /**
+     * Obtains a {@link PointQuadTree} from {@link PoolPointQuadTree}, for efficient memory usage.
+     * Used when the {@link PointQuadTree} splits, should not be called under any other circumstance.
+     * @return a newly freed {@link PointQuadTree} */
+    PointQuadTree<T> obtainNode() {
+        return quadTreePool.obtain();
+    }
+
+    /**
+     * Frees a {@link PointQuadTree} through {@link PoolPointQuadTree}, for efficient memory usage.
+     * Used when the {@link PointQuadTree} clears itself, should not be called under any other circumstance.
+     * @param node the {@link PointQuadTree} node to free */
+    void freeNode(PointQuadTree<T> node) {
+        quadTreePool.free(node);
+    }
+
+    //
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public void setMaxLevel(int maxLevel) {
+        this.maxLevel = maxLevel;
+    }
+
+    public int getMaxItemsPerNode() {
+        return maxItemsPerNode;
+    }
+
+    public void setMaxItemsPerNode(int maxItemsPerNode) {
+        this.maxItemsPerNode = maxItemsPerNode;
+    }
+
+    /** @return the tree's bounds */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+}
@@ -0,0 +1,18 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link DynamicAABBTree}'s pool used for handling {@link DynamicAABBTreeNode} objects.
+ * @author Aret3Dev */
+public class PoolDynamicAABBTreeNode<T> extends Pool<DynamicAABBTreeNode<T>> {
+
+    PoolDynamicAABBTreeNode() {
+    }
+
+    @Override
+    protected DynamicAABBTreeNode<T> newObject() {
+        return new DynamicAABBTreeNode<>();
+    }
+
+}
@@ -0,0 +1,29 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link OctreeRoot}'s pool used for handling {@link Octree} objects.
+ * @author Aret3Dev */
+public class PoolOctree<T> extends Pool<Octree<T>> {
+
+    private final OctreeRoot<T> root;
+
+    PoolOctree(OctreeRoot<T> root) {
+        this.root = root;
+    }
+
+    @Override
+    protected Octree<T> newObject() {
+        Octree<T> octree = new Octree<>(root.getMaxItemsPerNode());
+        octree.root = root;
+        return octree;
+    }
+    @Override
+    public Octree<T> obtain() {
+        Octree<T> octree = super.obtain();
+        octree.root = root;
+        return octree;
+    }
+
+}
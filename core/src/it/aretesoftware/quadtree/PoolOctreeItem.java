@@ -0,0 +1,18 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link OctreeRoot}'s pool used for handling {@link OctreeItem} objects.
+ * @author Aret3Dev */
+public class PoolOctreeItem<T> extends Pool<OctreeItem<T>> {
+
+    PoolOctreeItem() {
+    }
+
+    @Override
+    protected OctreeItem<T> newObject() {
+        return new OctreeItem<>();
+    }
+
+}
@@ -0,0 +1,31 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link PointQuadTreeRoot}'s pool used for handling {@link PointQuadTree} objects.
+ * @author Aret3Dev */
+public class PoolPointQuadTree<T> extends Pool<PointQuadTree<T>> {
+
+    private final PointQuadTreeRoot<T> root;
+
+    PoolPointQuadTree(PointQuadTreeRoot<T> root) {
+        this.root = root;
+    }
+
+    @Override
+    protected PointQuadTree<T> newObject() {
+        Rectangle rectangle = new Rectangle();
+        PointQuadTree<T> quadTree = new PointQuadTree<>(rectangle, root.getMaxItemsPerNode());
+        quadTree.root = root;
+        return quadTree;
+    }
+    @Override
+    public PointQuadTree<T> obtain() {
+        PointQuadTree<T> quadTree = super.obtain();
+        quadTree.root = root;
+        return quadTree;
+    }
+
+}
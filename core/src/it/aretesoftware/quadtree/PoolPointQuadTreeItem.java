@@ -0,0 +1,18 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link PointQuadTreeRoot}'s pool used for handling {@link PointQuadTreeItem} objects.
+ * @author Aret3Dev */
+public class PoolPointQuadTreeItem<T> extends Pool<PointQuadTreeItem<T>> {
+
+    PoolPointQuadTreeItem() {
+    }
+
+    @Override
+    protected PointQuadTreeItem<T> newObject() {
+        return new PointQuadTreeItem<>();
+    }
+
+}
@@ -3,14 +3,14 @@ package it.aretesoftware.quadtree;
 import com.badlogic.gdx.utils.Pool;
 
 /**
- * The {@link QuadTreeRoot}'s pool used for handling {@link QuadTreeItem} objects.
+ * The {@link SpatialIndex}'s pool used for handling {@link QuadTreeItem} objects.
  * @author Aret3Dev */
 public class PoolQuadTreeItem<T> extends Pool<QuadTreeItem<T>> {
 
-    private final QuadTreeRoot<T> root;
+    private final SpatialIndex<T> index;
 
-    PoolQuadTreeItem(QuadTreeRoot<T> root) {
-        this.root = root;
+    PoolQuadTreeItem(SpatialIndex<T> index) {
+        this.index = index;
     }
 
     @Override
@@ -0,0 +1,28 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@link SpatialHashGrid}'s pool used for handling the {@link Array}s of {@link QuadTreeItem}s held by each cell.
+ * @author Aret3Dev */
+public class PoolSpatialHashGridCell<T> extends Pool<Array<QuadTreeItem<T>>> {
+
+    private final int cellCapacity;
+
+    PoolSpatialHashGridCell(int cellCapacity) {
+        this.cellCapacity = cellCapacity;
+    }
+
+    @Override
+    protected Array<QuadTreeItem<T>> newObject() {
+        return new Array<>(cellCapacity);
+    }
+
+    /** Clears the cell once it's freed, as {@link Array} does not implement {@link Pool.Poolable}. */
+    @Override
+    protected void reset(Array<QuadTreeItem<T>> cell) {
+        cell.clear();
+    }
+
+}
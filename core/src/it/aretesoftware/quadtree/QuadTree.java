@@ -5,6 +5,7 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Predicate;
 
 /**
  * Represents a single node in the tree; will automatically split into four more nodes
@@ -19,7 +20,14 @@ import com.badlogic.gdx.utils.Pool;
 public class QuadTree<T> implements Pool.Poolable {
 
     int level;
+    int generation;
+    int subtreeCategoryMask;
+    int subtreeItemCount;
+    long itemsVersion, subtreeVersion;
+    boolean pageRoot, pagedOut;
+    int page = -1, pageStamp;
     QuadTreeRoot<T> root;
+    QuadTree<T> parent;
     QuadTree<T> northWest;
     QuadTree<T> northEast;
     QuadTree<T> southWest;
@@ -43,6 +51,10 @@ public class QuadTree<T> implements Pool.Poolable {
         clear();
         bounds.set(0, 0, 0, 0);
         root = null;
+        parent = null;
+        pageRoot = false;
+        pagedOut = false;
+        page = -1;
     }
 
     /**
@@ -53,6 +65,8 @@ public class QuadTree<T> implements Pool.Poolable {
     protected void clear() {
         root.freeAllItems(items);
         items.clear();
+        subtreeCategoryMask = 0;
+        subtreeItemCount = 0;
 
         if (northWest != null) {
             root.freeNode(northWest);
@@ -76,75 +90,252 @@ public class QuadTree<T> implements Pool.Poolable {
 
     /**
      * Inserts a {@link QuadTreeItem} into this {@link QuadTree}.
+     * The item is pushed down into a node only if said node fully contains it, otherwise it's kept
+     * by this {@link QuadTree}, so that every node a query reaches an item through overlaps the item.
      * @param item the item to add into this {@link QuadTree}
      * @return whether the item was added or not */
     protected boolean insert(QuadTreeItem<T> item) {
-        Rectangle rect = item.getObjectBounds();
+        Rectangle rect = item.getFatBounds();
         if (!rect.overlaps(bounds)) {
             return false;
         }
+        subtreeCategoryMask |= item.getCategoryMask();
+        subtreeItemCount++;
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
 
-        if (northWest != null) {
-            if (northWest.insert(item)
-                    || northEast.insert(item)
-                    || southWest.insert(item)
-                    || southEast.insert(item)) {
-                return true;
+        if (isSplit()) {
+            QuadTree<T> node = nodeContaining(rect);
+            if (node != null) {
+                return node.insert(item);
             }
         }
 
         items.add(item);
+        item.node = this;
+        markModified();
         if (items.size <= root.getMaxItemsPerNode() || level >= root.getMaxLevel()) {
             return true;
         }
 
-        if (northWest == null) {
+        if (!isSplit()) {
             split();
         }
 
         int i = 0;
         while (i < items.size) {
             QuadTreeItem<T> arrayItem = items.get(i);
-            if (northWest.insert(arrayItem)
-                    || northEast.insert(arrayItem)
-                    || southWest.insert(arrayItem)
-                    || southEast.insert(arrayItem)) {
+            QuadTree<T> node = nodeContaining(arrayItem.getFatBounds());
+            if (node != null) {
                 items.removeIndex(i);
+                node.insert(arrayItem);
             }
             else {
                 i++;
             }
         }
 
+        return true;
+    }
+
+    /**
+     * @param rect the {@link Rectangle} to look for
+     * @return the node among this {@link QuadTree}'s four that fully contains the rectangle, or null if none does */
+    QuadTree<T> nodeContaining(Rectangle rect) {
+        if (northWest.bounds.contains(rect)) return northWest;
+        if (northEast.bounds.contains(rect)) return northEast;
+        if (southWest.bounds.contains(rect)) return southWest;
+        if (southEast.bounds.contains(rect)) return southEast;
+        return null;
+    }
 
+    /**
+     * Detaches a {@link QuadTreeItem} from this {@link QuadTree}'s own items, without freeing it.
+     * @param item the item to detach
+     * @return whether the item was found and detached */
+    boolean detach(QuadTreeItem<T> item) {
+        if (!items.removeValue(item, true)) {
+            return false;
+        }
+        item.node = null;
+        for (QuadTree<T> node = this; node != null; node = node.parent) {
+            node.subtreeItemCount--;
+        }
+        markModified();
         return true;
     }
 
+    /**
+     * Stamps this {@link QuadTree}'s items, and the subtrees of all of its ancestors, with a new version of the tree.
+     * Used to find out which parts of the tree changed since a given version, see modifiedSince(). */
+    void markModified() {
+        long version = ++root.version;
+        itemsVersion = version;
+        for (QuadTree<T> node = this; node != null; node = node.parent) {
+            node.subtreeVersion = version;
+        }
+    }
+
+    /**
+     * @param version the version of the tree to compare against
+     * @param area the {@link Rectangle} area to check
+     * @return whether any node overlapping the area had its items changed after the given version */
+    boolean modifiedSince(long version, Rectangle area) {
+        if (subtreeVersion <= version) {
+            return false;
+        }
+        if (itemsVersion > version || pagedOut) {
+            return true;
+        }
+        if (isSplit()) {
+            if (northWest.bounds.overlaps(area) && northWest.modifiedSince(version, area)) return true;
+            if (northEast.bounds.overlaps(area) && northEast.modifiedSince(version, area)) return true;
+            if (southWest.bounds.overlaps(area) && southWest.modifiedSince(version, area)) return true;
+            if (southEast.bounds.overlaps(area) && southEast.modifiedSince(version, area)) return true;
+        }
+        return false;
+    }
+
     /**
      * Splits this {@link QuadTree} into four more nodes, which are obtained from
-     * {@link QuadTreeRoot}'s {@link Pool}. */
-    private void split() {
+     * {@link QuadTreeRoot}'s {@link Pool}. If this node still holds nodes left over from an
+     * older generation, see {@link QuadTreeRoot}'s setGenerationalClear(), those are reused instead. */
+    void split() {
         float halfWidth = (bounds.getWidth() * 0.5f);
         float halfHeight = (bounds.getHeight() * 0.5f);
         float x = bounds.getX();
         float y = bounds.getY();
         int newLevel = level + 1;
 
-        northWest = root.obtainNode();
-        northWest.bounds.set(x, y + halfHeight, halfWidth, halfHeight);
-        northWest.level = newLevel;
+        northWest = prepareNode(northWest, x, y + halfHeight, halfWidth, halfHeight, newLevel);
+        northEast = prepareNode(northEast, x + halfWidth, y + halfHeight, halfWidth, halfHeight, newLevel);
+        southWest = prepareNode(southWest, x, y, halfWidth, halfHeight, newLevel);
+        southEast = prepareNode(southEast, x + halfWidth, y, halfWidth, halfHeight, newLevel);
+    }
+
+    /**
+     * Prepares one of the nodes obtained when splitting, stamping it with the current generation.
+     * @param node the stale node to reuse, or null to obtain a new one */
+    private QuadTree<T> prepareNode(QuadTree<T> node, float x, float y, float width, float height, int newLevel) {
+        if (node == null) {
+            node = root.obtainNode();
+        }
+        else {
+            node.items.clear();
+        }
+        node.subtreeCategoryMask = 0;
+        node.subtreeItemCount = 0;
+        node.parent = this;
+        node.itemsVersion = ++root.version;
+        node.subtreeVersion = node.itemsVersion;
+        node.bounds.set(x, y, width, height);
+        node.level = newLevel;
+        node.generation = root.generation;
+        if (root.pager != null) {
+            root.pager.track(node);
+        }
+        return node;
+    }
+
+    /**
+     * Nodes left over from an older generation are treated as if this node was never split.
+     * @return whether this {@link QuadTree} is split into four nodes */
+    boolean isSplit() {
+        return northWest != null && northWest.generation == root.generation;
+    }
 
-        northEast = root.obtainNode();
-        northEast.bounds.set(x + halfWidth, y + halfHeight, halfWidth, halfHeight);
-        northEast.level = newLevel;
+    /**
+     * Clears the items of this {@link QuadTree} and of all of its nodes, including stale ones, without freeing them.
+     * Used by {@link QuadTreeRoot} when leaving generational mode, as its items are then owned by its slab. */
+    void discardItems() {
+        items.clear();
+        if (northWest != null) {
+            northWest.discardItems();
+            northEast.discardItems();
+            southWest.discardItems();
+            southEast.discardItems();
+        }
+    }
 
-        southWest = root.obtainNode();
-        southWest.bounds.set(x, y, halfWidth, halfHeight);
-        southWest.level = newLevel;
+    /**
+     * Moves this {@link QuadTree}'s items and nodes into the given empty node, leaving this one empty.
+     * Used by {@link QuadTreeRoot} when growing or shrinking its bounds.
+     * @param node the empty node that takes over this node's contents */
+    void moveContentsTo(QuadTree<T> node) {
+        for (QuadTreeItem<T> item : items) {
+            item.node = node;
+        }
+        node.items.addAll(items);
+        node.subtreeCategoryMask = subtreeCategoryMask;
+        node.subtreeItemCount = subtreeItemCount;
+        items.clear();
+        node.northWest = northWest;
+        node.northEast = northEast;
+        node.southWest = southWest;
+        node.southEast = southEast;
+        if (node.northWest != null) {
+            node.northWest.parent = node;
+            node.northEast.parent = node;
+            node.southWest.parent = node;
+            node.southEast.parent = node;
+        }
+        northWest = null;
+        northEast = null;
+        southWest = null;
+        southEast = null;
+    }
 
-        southEast = root.obtainNode();
-        southEast.bounds.set(x + halfWidth, y, halfWidth, halfHeight);
-        southEast.level = newLevel;
+    /**
+     * Offsets the level of this {@link QuadTree} and all of its nodes.
+     * @param offset the amount added to every level */
+    void offsetLevels(int offset) {
+        level += offset;
+        if (isSplit()) {
+            northWest.offsetLevels(offset);
+            northEast.offsetLevels(offset);
+            southWest.offsetLevels(offset);
+            southEast.offsetLevels(offset);
+        }
+    }
+
+    /** @return whether neither this {@link QuadTree} nor its nodes hold any item */
+    boolean isEmpty() {
+        if (items.size > 0) {
+            return false;
+        }
+        return !isSplit()
+                || (northWest.isEmpty() && northEast.isEmpty() && southWest.isEmpty() && southEast.isEmpty());
+    }
+
+    /** @return the amount of nodes in this {@link QuadTree}'s subtree, this node included */
+    int countNodes() {
+        if (!isSplit()) {
+            return 1;
+        }
+        return 1 + northWest.countNodes() + northEast.countNodes() + southWest.countNodes() + southEast.countNodes();
+    }
+
+    /** @return the deepest level reached by this {@link QuadTree}'s subtree, relative to this node */
+    int depth() {
+        if (!isSplit()) {
+            return 0;
+        }
+        return 1 + Math.max(Math.max(northWest.depth(), northEast.depth()), Math.max(southWest.depth(), southEast.depth()));
+    }
+
+    /**
+     * @param area the area to test against
+     * @return whether the fat bounds of every item in this {@link QuadTree} and its nodes are contained by the area */
+    boolean itemsFitIn(Rectangle area) {
+        for (QuadTreeItem<T> item : items) {
+            if (!area.contains(item.getFatBounds())) {
+                return false;
+            }
+        }
+        return !isSplit()
+                || (northWest.itemsFitIn(area) && northEast.itemsFitIn(area)
+                && southWest.itemsFitIn(area) && southEast.itemsFitIn(area));
     }
 
     /**
@@ -155,7 +346,10 @@ public class QuadTree<T> implements Pool.Poolable {
      * @param area the {@link Rectangle} area to search in the tree
      * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
     protected Array<QuadTreeItem<T>> retrieve(Array<QuadTreeItem<T>> list, Rectangle area) {
-        if (northWest != null) {
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        if (isSplit()) {
             if (northWest.bounds.overlaps(area)) northWest.retrieve(list, area);
             if (northEast.bounds.overlaps(area)) northEast.retrieve(list, area);
             if (southWest.bounds.overlaps(area)) southWest.retrieve(list, area);
@@ -166,20 +360,157 @@ public class QuadTree<T> implements Pool.Poolable {
         return list;
     }
 
+    /**
+     * Same as retrieve(), but only returns the {@link QuadTreeItem}s whose category mask shares at least
+     * one bit with the given mask; nodes whose subtree holds no such category are skipped entirely.
+     * @param list the {@link Array} any items found will be added into
+     * @param area the {@link Rectangle} area to search in the tree
+     * @param categoryMask the categories to search for
+     * @return list of {@link QuadTreeItem} of the given categories found in the defined {@link Rectangle} area */
+    protected Array<QuadTreeItem<T>> retrieve(Array<QuadTreeItem<T>> list, Rectangle area, int categoryMask) {
+        if ((subtreeCategoryMask & categoryMask) == 0) {
+            return list;
+        }
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        if (isSplit()) {
+            if (northWest.bounds.overlaps(area)) northWest.retrieve(list, area, categoryMask);
+            if (northEast.bounds.overlaps(area)) northEast.retrieve(list, area, categoryMask);
+            if (southWest.bounds.overlaps(area)) southWest.retrieve(list, area, categoryMask);
+            if (southEast.bounds.overlaps(area)) southEast.retrieve(list, area, categoryMask);
+        }
+        for (int i = 0, n = items.size; i < n; i++) {
+            QuadTreeItem<T> item = items.get(i);
+            if ((item.getCategoryMask() & categoryMask) != 0) {
+                list.add(item);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Same as retrieve(), but nodes and {@link QuadTreeItem}s are tested against a {@link ConvexRegion},
+     * so that nodes outside of it are skipped and only items whose fat bounds overlap it are returned.
+     * @param list the {@link Array} any items found will be added into
+     * @param region the {@link ConvexRegion} to search in the tree
+     * @return list of {@link QuadTreeItem} found in the defined {@link ConvexRegion} */
+    protected Array<QuadTreeItem<T>> retrieve(Array<QuadTreeItem<T>> list, ConvexRegion region) {
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        if (isSplit()) {
+            if (region.overlaps(northWest.bounds)) northWest.retrieve(list, region);
+            if (region.overlaps(northEast.bounds)) northEast.retrieve(list, region);
+            if (region.overlaps(southWest.bounds)) southWest.retrieve(list, region);
+            if (region.overlaps(southEast.bounds)) southEast.retrieve(list, region);
+        }
+        for (int i = 0, n = items.size; i < n; i++) {
+            QuadTreeItem<T> item = items.get(i);
+            if (region.overlaps(item.getFatBounds())) {
+                list.add(item);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Stops at the first {@link QuadTreeItem} found; nodes fully contained by the area answer right away
+     * if their subtree holds any item.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return whether any item's fat bounds overlap the area */
+    protected boolean any(Rectangle area) {
+        if (subtreeItemCount == 0) {
+            return false;
+        }
+        if (area.contains(bounds)) {
+            return true;
+        }
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        for (int i = 0, n = items.size; i < n; i++) {
+            if (items.get(i).getFatBounds().overlaps(area)) {
+                return true;
+            }
+        }
+        if (isSplit()) {
+            if (northWest.bounds.overlaps(area) && northWest.any(area)) return true;
+            if (northEast.bounds.overlaps(area) && northEast.any(area)) return true;
+            if (southWest.bounds.overlaps(area) && southWest.any(area)) return true;
+            if (southEast.bounds.overlaps(area) && southEast.any(area)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Nodes fully contained by the area add their subtree's item count, without being traversed.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return the amount of items whose fat bounds overlap the area */
+    protected int count(Rectangle area) {
+        if (subtreeItemCount == 0) {
+            return 0;
+        }
+        if (area.contains(bounds)) {
+            return subtreeItemCount;
+        }
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        int count = 0;
+        for (int i = 0, n = items.size; i < n; i++) {
+            if (items.get(i).getFatBounds().overlaps(area)) {
+                count++;
+            }
+        }
+        if (isSplit()) {
+            if (northWest.bounds.overlaps(area)) count += northWest.count(area);
+            if (northEast.bounds.overlaps(area)) count += northEast.count(area);
+            if (southWest.bounds.overlaps(area)) count += southWest.count(area);
+            if (southEast.bounds.overlaps(area)) count += southEast.count(area);
+        }
+        return count;
+    }
+
+    /**
+     * Stops at the first {@link QuadTreeItem} found that satisfies the predicate.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @param predicate the condition the item must satisfy
+     * @return the first item whose fat bounds overlap the area and that satisfies the predicate, or null if none does */
+    protected QuadTreeItem<T> first(Rectangle area, Predicate<QuadTreeItem<T>> predicate) {
+        if (subtreeItemCount == 0) {
+            return null;
+        }
+        if (pageRoot) {
+            root.pager.touch(this);
+        }
+        for (int i = 0, n = items.size; i < n; i++) {
+            QuadTreeItem<T> item = items.get(i);
+            if (item.getFatBounds().overlaps(area) && predicate.evaluate(item)) {
+                return item;
+            }
+        }
+        if (isSplit()) {
+            QuadTreeItem<T> item = null;
+            if (northWest.bounds.overlaps(area)) item = northWest.first(area, predicate);
+            if (item == null && northEast.bounds.overlaps(area)) item = northEast.first(area, predicate);
+            if (item == null && southWest.bounds.overlaps(area)) item = southWest.first(area, predicate);
+            if (item == null && southEast.bounds.overlaps(area)) item = southEast.first(area, predicate);
+            return item;
+        }
+        return null;
+    }
+
     //
 
     /** Render this {@link QuadTree} and its nodes, if they exist. */
     public void render(ShapeRenderer shapeRenderer) {
-        if (northWest != null) {
+        if (isSplit()) {
             northWest.render(shapeRenderer);
-        }
-        if (northEast != null) {
             northEast.render(shapeRenderer);
-        }
-        if (southWest != null) {
             southWest.render(shapeRenderer);
-        }
-        if (southEast != null) {
             southEast.render(shapeRenderer);
         }
 
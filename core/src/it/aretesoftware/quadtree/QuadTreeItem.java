@@ -1,10 +1,12 @@
 package it.aretesoftware.quadtree;
 
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 
 /**
  * The object that gets inserted into the {@link QuadTreeRoot} and by extension, the {@link QuadTree}.
+ * Also used by every other {@link SpatialIndex}, such as the {@link DynamicAABBTree} and the {@link SpatialHashGrid}.
  * Allows typecasting to any class, thus making the system easy to use in any game.
  * Implements the {@link Pool.Poolable} interface for efficient memory usage.
  * @author Aret3Dev */
@@ -12,6 +14,13 @@ public class QuadTreeItem<T> implements Pool.Poolable {
 
     private T object;
     private final Rectangle objectBounds = new Rectangle();
+    private final Rectangle fatBounds = new Rectangle();
+    private float margin;
+    private int sortKey;
+    private int categoryMask = 1;
+    QuadTree<T> node;
+    DynamicAABBTreeNode<T> leaf;
+    Array<QuadTreeItem<T>> cell;
 
     /**
      * Call this method once you get a {@link QuadTreeItem} from {@link QuadTreeRoot}'s obtainItem() method.
@@ -20,6 +29,17 @@ public class QuadTreeItem<T> implements Pool.Poolable {
     public void init(T object, Rectangle objectBounds) {
         this.object = object;
         this.objectBounds.set(objectBounds);
+        fatten(0, 0, 0);
+    }
+
+    /**
+     * Call this method once you get a {@link QuadTreeItem} from {@link QuadTreeRoot}'s obtainItem() method.
+     * @param object the object to set
+     * @param objectBounds the object's boundaries
+     * @param sortKey the key used by {@link QuadTreeRoot}'s retrieveSorted(), such as a texture index */
+    public void init(T object, Rectangle objectBounds, int sortKey) {
+        init(object, objectBounds);
+        this.sortKey = sortKey;
     }
 
     /**
@@ -29,7 +49,43 @@ public class QuadTreeItem<T> implements Pool.Poolable {
     @Override
     public void reset() {
         objectBounds.set(0, 0, 0, 0);
+        fatBounds.set(0, 0, 0, 0);
         object = null;
+        margin = 0;
+        sortKey = 0;
+        categoryMask = 1;
+        node = null;
+        leaf = null;
+        cell = null;
+    }
+
+    /**
+     * Recomputes the fat bounds from the object's bounds, enlarging them by the margin on every side
+     * and sweeping them along the given displacement.
+     * @param displacementX the expected horizontal movement of the object
+     * @param displacementY the expected vertical movement of the object
+     * @param multiplier how many times the displacement is swept ahead */
+    void fatten(float displacementX, float displacementY, float multiplier) {
+        fatBounds.set(objectBounds.x - margin, objectBounds.y - margin,
+                objectBounds.width + margin * 2f, objectBounds.height + margin * 2f);
+        float sweepX = displacementX * multiplier;
+        float sweepY = displacementY * multiplier;
+        if (sweepX < 0) fatBounds.x += sweepX;
+        fatBounds.width += Math.abs(sweepX);
+        if (sweepY < 0) fatBounds.y += sweepY;
+        fatBounds.height += Math.abs(sweepY);
+    }
+
+    /**
+     * Sets the object's bounds, keeping the fat bounds untouched.
+     * Used by the {@link SpatialIndex}'s update() method. */
+    void setObjectBounds(Rectangle objectBounds) {
+        this.objectBounds.set(objectBounds);
+    }
+
+    /** @return whether the object's bounds are still fully contained by the fat bounds */
+    boolean fitsFatBounds() {
+        return fatBounds.contains(objectBounds);
     }
 
     /** @return the stored object */
@@ -41,4 +97,45 @@ public class QuadTreeItem<T> implements Pool.Poolable {
     public Rectangle getObjectBounds() {
         return objectBounds;
     }
+
+    /**
+     * The bounds used to place this item in the tree. They equal the object's bounds
+     * unless a margin is set or the item is updated with a velocity.
+     * @return the item's fat bounds */
+    public Rectangle getFatBounds() {
+        return fatBounds;
+    }
+
+    /** @return the margin the fat bounds extend past the object's bounds on every side */
+    public float getMargin() {
+        return margin;
+    }
+
+    /**
+     * Sets the margin the fat bounds extend past the object's bounds on every side;
+     * set it before inserting the item, as it only applies on the next relocation.
+     * A moving object is only relocated in the tree once it leaves its fat bounds.
+     * @param margin the margin, 0 by default */
+    public void setMargin(float margin) {
+        this.margin = margin;
+        fatten(0, 0, 0);
+    }
+
+    /** @return the categories this item belongs to, as a bitmask */
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+
+    /**
+     * Sets the categories this item belongs to, such as units, bullets or pickups, one bit each;
+     * set it before inserting the item, as the tree's nodes aggregate the categories of their items.
+     * @param categoryMask the categories' bitmask, 1 by default */
+    public void setCategoryMask(int categoryMask) {
+        this.categoryMask = categoryMask;
+    }
+
+    /** @return the key used to sort this item, 0 by default */
+    public int getSortKey() {
+        return sortKey;
+    }
 }
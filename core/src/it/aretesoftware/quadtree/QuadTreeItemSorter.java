@@ -0,0 +1,94 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Sorts {@link QuadTreeItem}s by their sort key through a stable LSD radix sort,
+ * so that items sharing a key (e.g. the same texture) end up next to each other.
+ * All the buffers are reused between calls, thus sorting does not allocate once they've grown.
+ * Items sharing the same key keep the order they were retrieved in.
+ * @author Aret3Dev */
+public class QuadTreeItemSorter<T> {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX_SIZE - 1;
+
+    private final int[] counts = new int[RADIX_SIZE];
+    private final Array<QuadTreeItem<T>> scratch;
+
+    public QuadTreeItemSorter() {
+        this(16);
+    }
+
+    public QuadTreeItemSorter(int initialCapacity) {
+        scratch = new Array<>(initialCapacity);
+    }
+
+    //
+
+    /**
+     * Sorts the given {@link Array} in place by each {@link QuadTreeItem}'s sort key, in ascending order.
+     * Passes whose digit is the same for every item are skipped, so small keys such as texture indices
+     * only cost a single pass over the items.
+     * @param list the {@link Array} of {@link QuadTreeItem}s to sort
+     * @return the same {@link Array}, now sorted */
+    public Array<QuadTreeItem<T>> sort(Array<QuadTreeItem<T>> list) {
+        int size = list.size;
+        if (size < 2) {
+            return list;
+        }
+        scratch.clear();
+        scratch.ensureCapacity(size);
+        scratch.setSize(size);
+
+        Array<QuadTreeItem<T>> from = list;
+        Array<QuadTreeItem<T>> to = scratch;
+        for (int shift = 0; shift < 32; shift += RADIX_BITS) {
+            if (!countDigits(from, shift)) {
+                continue;
+            }
+            int total = 0;
+            for (int i = 0; i < RADIX_SIZE; i++) {
+                int count = counts[i];
+                counts[i] = total;
+                total += count;
+            }
+            for (int i = 0; i < size; i++) {
+                QuadTreeItem<T> item = from.get(i);
+                to.set(counts[digit(item, shift)]++, item);
+            }
+            Array<QuadTreeItem<T>> swap = from;
+            from = to;
+            to = swap;
+        }
+
+        if (from != list) {
+            for (int i = 0; i < size; i++) {
+                list.set(i, from.get(i));
+            }
+        }
+        scratch.clear();
+        return list;
+    }
+
+    /**
+     * Counts how many items fall in each bucket for the digit at the given shift.
+     * @return whether the items are spread over more than one bucket, i.e. whether the pass is needed */
+    private boolean countDigits(Array<QuadTreeItem<T>> list, int shift) {
+        for (int i = 0; i < RADIX_SIZE; i++) {
+            counts[i] = 0;
+        }
+        int size = list.size;
+        for (int i = 0; i < size; i++) {
+            counts[digit(list.get(i), shift)]++;
+        }
+        return counts[digit(list.get(0), shift)] != size;
+    }
+
+    /** Flips the sign bit, so that negative keys are sorted before positive ones. */
+    private static int digit(QuadTreeItem<?> item, int shift) {
+        return ((item.getSortKey() ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK;
+    }
+
+}
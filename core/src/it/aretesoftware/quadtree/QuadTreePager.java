@@ -0,0 +1,369 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ByteArray;
+
+/**
+ * Pages the subtrees of a {@link QuadTreeRoot} in and out of memory, so that the tree of an open world, usually
+ * its static layer, only keeps a bounded amount of {@link QuadTreeItem}s in memory regardless of the world's size.
+ * Every node at the paging level roots a page: once the items of the resident pages exceed the budget, the least
+ * recently used pages are encoded into a {@link PageStore} and their nodes and items are freed to the tree's pools.
+ * A page is loaded back as soon as a query or an insertion reaches its node, taking its nodes and items from said
+ * pools, so that reloading doesn't allocate once the pools are warm. Objects are stored through a {@link PageCodec}.
+ * Pages are only paged out between operations, when the tree is next queried or inserted into, so the items
+ * retrieved by a query stay valid until then, as with the tree's internal {@link Array}.
+ * Nodes above the paging level, along with their items, are always resident; so are the item counts and
+ * category masks of the paged out nodes, so count() and category filtered queries skip them without loading them.
+ * Paging requires generational clear to be disabled, and can't be used along with {@link ConcurrentInserter}, which rejects paged trees.
+ * References to the items of a page are invalid once it's paged out, since its items are freed:
+ * paged trees suit static content, which is rarely removed or updated.
+ * @author Aret3Dev */
+public class QuadTreePager<T> {
+
+    private final QuadTreeRoot<T> root;
+    private final PageStore store;
+    private final PageCodec<T> codec;
+    private final int pageLevel;
+    private int maxResidentItems;
+    private final Array<QuadTree<T>> pages = new Array<>(false, 64);
+    private final ByteArray buffer = new ByteArray(1024);
+    private final Rectangle objectBounds = new Rectangle();
+    private int position;
+    private int nextPage;
+    private int clock;
+    private int pageOuts, pageIns;
+    private boolean loaded;
+
+    /**
+     * Starts paging the given tree; disables its generational clear, if enabled, which clears it.
+     * @param root the tree to page
+     * @param store where the paged out subtrees are kept
+     * @param codec turns the tree's objects into ints and back
+     * @param pageLevel the level of the nodes rooting a page, at least 1
+     * @param maxResidentItems how many items the resident pages may hold before the least recently used are paged out */
+    public QuadTreePager(QuadTreeRoot<T> root, PageStore store, PageCodec<T> codec, int pageLevel, int maxResidentItems) {
+        this.root = root;
+        this.store = store;
+        this.codec = codec;
+        this.pageLevel = Math.max(1, pageLevel);
+        this.maxResidentItems = maxResidentItems;
+        root.setGenerationalClear(false);
+        root.pager = this;
+        trackAll(root);
+    }
+
+    //
+
+    /**
+     * Pages out the least recently used pages until the resident ones fit the budget.
+     * Done automatically before the tree's next query or insertion once a page was loaded;
+     * call it after inserting many items, such as after loading a level. */
+    public void trim() {
+        loaded = false;
+        int residentItems = 0;
+        for (int i = pages.size - 1; i >= 0; i--) {
+            QuadTree<T> node = pages.get(i);
+            if (!node.pageRoot || node.root != root) {
+                // Freed when the tree shrank or grew
+                pages.removeIndex(i);
+            }
+            else if (!node.pagedOut) {
+                residentItems += node.subtreeItemCount;
+            }
+        }
+        while (residentItems > maxResidentItems) {
+            QuadTree<T> oldest = null;
+            for (int i = 0, n = pages.size; i < n; i++) {
+                QuadTree<T> node = pages.get(i);
+                if (!node.pagedOut && node.subtreeItemCount > 0
+                        && (oldest == null || node.pageStamp - oldest.pageStamp < 0)) {
+                    oldest = node;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            residentItems -= oldest.subtreeItemCount;
+            evict(oldest);
+        }
+    }
+
+    /** Loads every paged out page back, regardless of the budget. */
+    public void loadAll() {
+        for (int i = 0, n = pages.size; i < n; i++) {
+            QuadTree<T> node = pages.get(i);
+            if (node.pagedOut) {
+                load(node);
+            }
+        }
+    }
+
+    /** Stops paging the tree, loading every page back first. */
+    public void dispose() {
+        loadAll();
+        for (int i = 0, n = pages.size; i < n; i++) {
+            pages.get(i).pageRoot = false;
+        }
+        pages.clear();
+        root.pager = null;
+    }
+
+    //
+
+    /**
+     * Marks a node as a page root, if it's at the paging level and no other page contains it.
+     * Called whenever the tree splits, should not be called under any other circumstance. */
+    void track(QuadTree<T> node) {
+        if (node.level != pageLevel || node.pageRoot) {
+            return;
+        }
+        for (QuadTree<T> parent = node.parent; parent != null; parent = parent.parent) {
+            if (parent.pageRoot) {
+                return;
+            }
+        }
+        node.pageRoot = true;
+        node.pageStamp = ++clock;
+        // A node freed and obtained again may still be listed
+        if (!pages.contains(node, true)) {
+            pages.add(node);
+        }
+    }
+
+    private void trackAll(QuadTree<T> node) {
+        track(node);
+        if (!node.pageRoot && node.isSplit()) {
+            trackAll(node.northWest);
+            trackAll(node.northEast);
+            trackAll(node.southWest);
+            trackAll(node.southEast);
+        }
+    }
+
+    /**
+     * Marks a page root as the most recently used one, loading it back if it was paged out.
+     * Called whenever a query or an insertion reaches a page root, should not be called under any other circumstance. */
+    void touch(QuadTree<T> node) {
+        node.pageStamp = ++clock;
+        if (node.pagedOut) {
+            load(node);
+            loaded = true;
+        }
+    }
+
+    /**
+     * Trims the pages if any was loaded since the last trim.
+     * Called by {@link QuadTreeRoot} before every query and insertion, should not be called under any other circumstance. */
+    void trimIfLoaded() {
+        if (loaded) {
+            trim();
+        }
+    }
+
+    /**
+     * Discards every page, as the tree is being cleared.
+     * Called by {@link QuadTreeRoot}'s clear(), should not be called under any other circumstance. */
+    void discardAll() {
+        for (int i = 0, n = pages.size; i < n; i++) {
+            QuadTree<T> node = pages.get(i);
+            if (node.pagedOut) {
+                store.remove(node.page);
+            }
+            node.pageRoot = false;
+            node.pagedOut = false;
+            node.page = -1;
+        }
+        pages.clear();
+    }
+
+    //
+
+    /** Encodes the page's subtree into the store, then frees its items and nodes. */
+    private void evict(QuadTree<T> node) {
+        buffer.clear();
+        encode(node);
+        node.page = nextPage++;
+        store.write(node.page, buffer);
+
+        root.freeAllItems(node.items);
+        node.items.clear();
+        if (node.isSplit()) {
+            root.freeNode(node.northWest);
+            root.freeNode(node.northEast);
+            root.freeNode(node.southWest);
+            root.freeNode(node.southEast);
+        }
+        node.northWest = null;
+        node.northEast = null;
+        node.southWest = null;
+        node.southEast = null;
+        node.pagedOut = true;
+        pageOuts++;
+    }
+
+    /** Decodes the page's subtree from the store, taking its items and nodes from the tree's pools. */
+    private void load(QuadTree<T> node) {
+        store.read(node.page, buffer);
+        store.remove(node.page);
+        node.page = -1;
+        node.pagedOut = false;
+        position = 0;
+        decode(node);
+        pageIns++;
+    }
+
+    /**
+     * Each node is written as its amount of items, followed by said items, and by whether it's split;
+     * if so, its four nodes follow. Node bounds are not written, as splitting derives them. */
+    private void encode(QuadTree<T> node) {
+        Array<QuadTreeItem<T>> items = node.items;
+        writeInt(items.size);
+        for (int i = 0, n = items.size; i < n; i++) {
+            QuadTreeItem<T> item = items.get(i);
+            Rectangle bounds = item.getObjectBounds();
+            Rectangle fatBounds = item.getFatBounds();
+            writeInt(codec.encode(item.getObject()));
+            writeFloat(bounds.x);
+            writeFloat(bounds.y);
+            writeFloat(bounds.width);
+            writeFloat(bounds.height);
+            writeFloat(fatBounds.x);
+            writeFloat(fatBounds.y);
+            writeFloat(fatBounds.width);
+            writeFloat(fatBounds.height);
+            writeFloat(item.getMargin());
+            writeInt(item.getSortKey());
+            writeInt(item.getCategoryMask());
+        }
+        boolean split = node.isSplit();
+        buffer.add((byte) (split ? 1 : 0));
+        if (split) {
+            encode(node.northWest);
+            encode(node.northEast);
+            encode(node.southWest);
+            encode(node.southEast);
+        }
+    }
+
+    /**
+     * Rebuilds a node written by encode(), recomputing the item counts and category masks of its nodes;
+     * the page root keeps its own, which stayed resident. */
+    private void decode(QuadTree<T> node) {
+        int count = readInt();
+        for (int i = 0; i < count; i++) {
+            QuadTreeItem<T> item = root.obtainItem();
+            T object = codec.decode(readInt());
+            objectBounds.set(readFloat(), readFloat(), readFloat(), readFloat());
+            float fatX = readFloat(), fatY = readFloat(), fatWidth = readFloat(), fatHeight = readFloat();
+            float margin = readFloat();
+            item.init(object, objectBounds, readInt());
+            item.setCategoryMask(readInt());
+            item.setMargin(margin);
+            item.getFatBounds().set(fatX, fatY, fatWidth, fatHeight);
+            item.node = node;
+            node.items.add(item);
+        }
+        if (buffer.get(position++) == 0) {
+            return;
+        }
+        node.split();
+        decodeChild(node, node.northWest);
+        decodeChild(node, node.northEast);
+        decodeChild(node, node.southWest);
+        decodeChild(node, node.southEast);
+    }
+
+    /** Nodes loaded back are stamped with their page's version, as they didn't change while paged out. */
+    private void decodeChild(QuadTree<T> node, QuadTree<T> child) {
+        child.itemsVersion = node.subtreeVersion;
+        child.subtreeVersion = node.subtreeVersion;
+        decode(child);
+        child.subtreeItemCount = countItems(child);
+        child.subtreeCategoryMask = categoryMask(child);
+    }
+
+    private int countItems(QuadTree<T> node) {
+        int count = node.items.size;
+        if (node.isSplit()) {
+            count += node.northWest.subtreeItemCount + node.northEast.subtreeItemCount
+                    + node.southWest.subtreeItemCount + node.southEast.subtreeItemCount;
+        }
+        return count;
+    }
+
+    private int categoryMask(QuadTree<T> node) {
+        int mask = 0;
+        for (int i = 0, n = node.items.size; i < n; i++) {
+            mask |= node.items.get(i).getCategoryMask();
+        }
+        if (node.isSplit()) {
+            mask |= node.northWest.subtreeCategoryMask | node.northEast.subtreeCategoryMask
+                    | node.southWest.subtreeCategoryMask | node.southEast.subtreeCategoryMask;
+        }
+        return mask;
+    }
+
+    private void writeInt(int value) {
+        buffer.add((byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value);
+    }
+
+    private void writeFloat(float value) {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    private int readInt() {
+        byte[] bytes = buffer.items;
+        int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+                | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    private float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    //
+
+    public int getPageLevel() {
+        return pageLevel;
+    }
+
+    public int getMaxResidentItems() {
+        return maxResidentItems;
+    }
+
+    /** @param maxResidentItems how many items the resident pages may hold; applied on the next trim() or page load */
+    public void setMaxResidentItems(int maxResidentItems) {
+        this.maxResidentItems = maxResidentItems;
+    }
+
+    /** @return how many pages are currently tracked, resident or not */
+    public int getPageCount() {
+        return pages.size;
+    }
+
+    /** @return how many items the resident pages hold */
+    public int getResidentItems() {
+        int residentItems = 0;
+        for (int i = 0, n = pages.size; i < n; i++) {
+            QuadTree<T> node = pages.get(i);
+            if (!node.pagedOut && node.pageRoot) {
+                residentItems += node.subtreeItemCount;
+            }
+        }
+        return residentItems;
+    }
+
+    /** @return how many times a page was paged out */
+    public int getPageOuts() {
+        return pageOuts;
+    }
+
+    /** @return how many times a page was loaded back */
+    public int getPageIns() {
+        return pageIns;
+    }
+
+}
@@ -1,8 +1,13 @@
 package it.aretesoftware.quadtree;
 
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Predicate;
 
 /**
  * The {@link QuadTree}'s root node. All operations on the tree should be done through this object.
@@ -10,12 +15,28 @@ import com.badlogic.gdx.utils.Pool;
  * Allows typecasting to any class, thus making the system easy to use in any game.
  * Uses {@link Pool} implementations through {@link PoolQuadTree} and {@link PoolQuadTreeItem} for efficient memory usage.
  * @author Aret3Dev */
-public class QuadTreeRoot<T> extends QuadTree<T> {
+public class QuadTreeRoot<T> extends QuadTree<T> implements SpatialIndex<T> {
+
+    private static final int MAX_EXPANSIONS = 32;
 
     private int maxLevel, maxItemsPerNode;
+    long version;
+    private final int poolsSize;
+    private float velocityMultiplier = 2f;
+    private boolean autoExpand;
+    private boolean generationalClear;
+    private boolean staticLayerEnabled = true, dynamicLayerEnabled = true;
+    private QuadTreeRoot<T> staticLayer;
+    QuadTreePager<T> pager;
+    private int slabUsed;
+    private final Array<QuadTreeItem<T>> slab;
+    private final Rectangle quadrant = new Rectangle();
+    private final ConvexRegion region = new ConvexRegion();
+    private final DistanceQuery<T> distanceQuery = new DistanceQuery<>();
     private final PoolQuadTree<T> quadTreePool;
     private final PoolQuadTreeItem<T> itemsPool;
     private final Array<QuadTreeItem<T>> retrievedItems;
+    private final QuadTreeItemSorter<T> sorter;
 
     public QuadTreeRoot(Rectangle bounds) {
         this(bounds, 6, 4, 32);
@@ -26,9 +47,12 @@ public class QuadTreeRoot<T> extends QuadTree<T> {
         super.root = this;
         this.maxLevel = maxLevel;
         this.maxItemsPerNode = maxItemsPerNode;
+        this.poolsSize = poolsSize;
         quadTreePool = createQuadtreePool(maxItemsPerNode);
         itemsPool = createItemsPool(poolsSize);
         retrievedItems = new Array<>(poolsSize);
+        slab = new Array<>(poolsSize);
+        sorter = new QuadTreeItemSorter<>(poolsSize);
     }
 
     private PoolQuadTree<T> createQuadtreePool(final int poolSize) {
@@ -47,46 +71,506 @@ public class QuadTreeRoot<T> extends QuadTree<T> {
 
     /**
      * Overrides {@link QuadTree}'s clear() to also clear {@link QuadTreeRoot}'s
-     * internal {@link Array} of {@link QuadTreeItem} used during retrieval. */
+     * internal {@link Array} of {@link QuadTreeItem} used during retrieval.
+     * If generational clear is enabled, this only bumps the generation and reclaims the slab of items,
+     * without walking the tree. The static layer, if any, is left untouched; clear it through getStaticLayer(). */
     @Override
     public void clear() {
         retrievedItems.clear();
-        super.clear();
+        if (pager != null) {
+            pager.discardAll();
+        }
+        if (generationalClear) {
+            generation++;
+            items.clear();
+            subtreeCategoryMask = 0;
+            subtreeItemCount = 0;
+            slabUsed = 0;
+        }
+        else {
+            super.clear();
+        }
+        markModified();
     }
 
     /**
      * Overrides {@link QuadTree}'s insert() to free() said {@link QuadTree}
-     * in case it couldn't get added for whatever reason.
+     * in case it couldn't get added, as it lies outside of the tree's bounds.
+     * If auto expansion is enabled, the tree's bounds first grow until they contain the item.
+     * An item already stored in the tree is left untouched, and isn't freed.
      * @param item the item to add into this {@link QuadTree}
      * @return whether the item was added or not */
     @Override
     public boolean insert(QuadTreeItem<T> item) {
+        if (item.node != null) {
+            return false;
+        }
+        trimPages();
+        if (autoExpand) {
+            expandToFit(item.getFatBounds());
+        }
         boolean inserted = super.insert(item);
         if (!inserted) {
-            itemsPool.free(item);
+            freeItem(item);
         }
         return inserted;
     }
 
+    /**
+     * Removes a {@link QuadTreeItem} from the tree and frees it through {@link PoolQuadTreeItem}.
+     * @param item the item to remove
+     * @return whether the item was stored in the tree */
+    @Override
+    public boolean remove(QuadTreeItem<T> item) {
+        QuadTree<T> node = item.node;
+        if (isInStaticLayer(item)) {
+            return staticLayer.remove(item);
+        }
+        if (node == null || node.root != this || !node.detach(item)) {
+            return false;
+        }
+        freeItem(item);
+        return true;
+    }
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the tree.
+     * The item is only relocated once its new bounds leave its fat bounds, in which case
+     * the fat bounds are rebuilt around the new bounds through the item's margin.
+     * If the item no longer fits in the tree it gets freed, just like insert() does.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @return whether the item is still stored in the tree */
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds) {
+        return update(item, objectBounds, 0, 0);
+    }
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the tree.
+     * The item is only relocated once its new bounds leave its fat bounds, in which case
+     * the fat bounds are rebuilt around the new bounds through the item's margin, and swept
+     * along the object's velocity times the velocity multiplier.
+     * If the item no longer fits in the tree it gets freed, just like insert() does.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @param velocityX the object's horizontal movement per update
+     * @param velocityY the object's vertical movement per update
+     * @return whether the item is still stored in the tree */
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds, float velocityX, float velocityY) {
+        if (isInStaticLayer(item)) {
+            return staticLayer.update(item, objectBounds, velocityX, velocityY);
+        }
+        item.setObjectBounds(objectBounds);
+        if (item.node != null && item.fitsFatBounds()) {
+            item.node.markModified();
+            return true;
+        }
+        if (item.node != null) {
+            item.node.detach(item);
+        }
+        item.fatten(velocityX, velocityY, velocityMultiplier);
+        return insert(item);
+    }
+
+    /**
+     * Shrinks the tree's bounds as long as all of its items fit in a single quadrant,
+     * re-rooting the tree on said quadrant's node, so that queries traverse fewer levels.
+     * Mostly useful after many items have been removed or have moved away, when auto expansion is enabled.
+     * If the tree is paged, see {@link QuadTreePager}, every page is loaded first. */
+    public void shrinkToFit() {
+        if (pager != null) {
+            pager.loadAll();
+        }
+        while (shrinkToQuadrant()) {
+            // Keep shrinking until the items no longer fit a single quadrant
+        }
+    }
+
+    /**
+     * Doubles the tree's bounds toward the given area until they contain it; the current
+     * tree becomes one of the quadrants of the new root, so no item gets reinserted.
+     * @param area the area the tree's bounds should contain */
+    private void expandToFit(Rectangle area) {
+        for (int i = 0; i < MAX_EXPANSIONS && !bounds.contains(area); i++) {
+            float width = bounds.width;
+            float height = bounds.height;
+            // Containment excludes the edges, so an area touching the left or bottom edge grows that way
+            boolean growWest = area.x <= bounds.x;
+            boolean growSouth = area.y <= bounds.y;
+            float x = growWest ? bounds.x - width : bounds.x;
+            float y = growSouth ? bounds.y - height : bounds.y;
+            if (items.size == 0 && !isSplit()) {
+                bounds.set(x, y, width * 2f, height * 2f);
+                markModified();
+                continue;
+            }
+
+            QuadTree<T> oldRoot = obtainNode();
+            oldRoot.items.clear();
+            oldRoot.generation = generation;
+            oldRoot.parent = this;
+            moveContentsTo(oldRoot);
+            oldRoot.bounds.set(bounds);
+            oldRoot.level = 0;
+            oldRoot.offsetLevels(1);
+
+            bounds.set(x, y, width * 2f, height * 2f);
+            split();
+            QuadTree<T> replaced;
+            if (growWest) {
+                if (growSouth) {
+                    replaced = northEast;
+                    northEast = oldRoot;
+                }
+                else {
+                    replaced = southEast;
+                    southEast = oldRoot;
+                }
+            }
+            else {
+                if (growSouth) {
+                    replaced = northWest;
+                    northWest = oldRoot;
+                }
+                else {
+                    replaced = southWest;
+                    southWest = oldRoot;
+                }
+            }
+            freeNode(replaced);
+            markModified();
+        }
+    }
+
+    /**
+     * Shrinks the tree's bounds to a single quadrant, if all of the items fit in it.
+     * @return whether the tree was shrunk */
+    private boolean shrinkToQuadrant() {
+        if (!isSplit()) {
+            if (items.size == 0) {
+                return false;
+            }
+            float halfWidth = bounds.width * 0.5f;
+            float halfHeight = bounds.height * 0.5f;
+            for (int i = 0; i < 4; i++) {
+                quadrant.set(bounds.x + (i % 2) * halfWidth, bounds.y + (i / 2) * halfHeight, halfWidth, halfHeight);
+                if (itemsFitIn(quadrant)) {
+                    bounds.set(quadrant);
+                    markModified();
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (items.size > 0) {
+            return false;
+        }
+
+        QuadTree<T> keep = null;
+        if (!northWest.isEmpty()) keep = northWest;
+        if (!northEast.isEmpty()) {
+            if (keep != null) return false;
+            keep = northEast;
+        }
+        if (!southWest.isEmpty()) {
+            if (keep != null) return false;
+            keep = southWest;
+        }
+        if (!southEast.isEmpty()) {
+            if (keep != null) return false;
+            keep = southEast;
+        }
+        if (keep == null || !keep.itemsFitIn(keep.bounds)) {
+            return false;
+        }
+
+        QuadTree<T> oldNorthWest = northWest;
+        QuadTree<T> oldNorthEast = northEast;
+        QuadTree<T> oldSouthWest = southWest;
+        QuadTree<T> oldSouthEast = southEast;
+        northWest = null;
+        northEast = null;
+        southWest = null;
+        southEast = null;
+        keep.moveContentsTo(this);
+        bounds.set(keep.bounds);
+        offsetLevels(-1);
+        level = 0;
+        freeNode(oldNorthWest);
+        freeNode(oldNorthEast);
+        freeNode(oldSouthWest);
+        freeNode(oldSouthEast);
+        markModified();
+        return true;
+    }
+
     /**
      * Overloading of {@link QuadTree}'s retrieve() method, this uses the {@link QuadTreeRoot}'s
      * internal {@link Array} of {@link QuadTree}s for efficient memory usage.
      * Said {@link Array} is cleared before retrieval.
+     * Items of the static layer, if any, are retrieved as well; see getStaticLayer().
      * @param area the {@link Rectangle} area to search in the tree
      * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
+    @Override
     public Array<QuadTreeItem<T>> retrieve(Rectangle area) {
         retrievedItems.clear();
-        return retrieve(retrievedItems, area);
+        trimPages();
+        if (dynamicLayerEnabled) {
+            retrieve(retrievedItems, area);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            staticLayer.retrieve(retrievedItems, area);
+        }
+        return retrievedItems;
+    }
+
+    /**
+     * Same as retrieve(), but only returns the {@link QuadTreeItem}s whose category mask shares at least one bit
+     * with the given mask. Every node keeps the union of its subtree's categories, so whole subtrees holding
+     * none of the requested categories are skipped. After removing or relocating items said union may
+     * still include categories that are gone, until the next clear(), which only costs some extra traversal.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @param categoryMask the categories to search for
+     * @return list of {@link QuadTreeItem} of the given categories found in the defined {@link Rectangle} area */
+    public Array<QuadTreeItem<T>> retrieve(Rectangle area, int categoryMask) {
+        retrievedItems.clear();
+        trimPages();
+        if (dynamicLayerEnabled) {
+            retrieve(retrievedItems, area, categoryMask);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            staticLayer.retrieve(retrievedItems, area, categoryMask);
+        }
+        return retrievedItems;
+    }
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose fat bounds overlap a convex {@link Polygon}, through separating axis
+     * tests against the nodes' bounds, so that nodes outside of the polygon are skipped. Uses the same internal
+     * {@link Array} as retrieve(), which is cleared before retrieval.
+     * @param polygon the convex {@link Polygon} to search in the tree
+     * @return list of {@link QuadTreeItem} found in the defined {@link Polygon} */
+    public Array<QuadTreeItem<T>> retrieve(Polygon polygon) {
+        return retrieve(region.set(polygon));
+    }
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose fat bounds overlap a camera's {@link Frustum}, cut at z = 0.
+     * Unlike the axis-aligned bounds of the frustum, this keeps its exact shape for cameras rotated around
+     * the z axis, so nodes and items outside of the view are skipped. Uses the same internal {@link Array}
+     * as retrieve(), which is cleared before retrieval.
+     * @param frustum the camera's {@link Frustum}, which should be up to date
+     * @return list of {@link QuadTreeItem} found in the defined {@link Frustum} */
+    public Array<QuadTreeItem<T>> retrieve(Frustum frustum) {
+        return retrieve(region.set(frustum));
+    }
+
+    private Array<QuadTreeItem<T>> retrieve(ConvexRegion region) {
+        retrievedItems.clear();
+        trimPages();
+        if (dynamicLayerEnabled) {
+            retrieve(retrievedItems, region);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            staticLayer.retrieve(retrievedItems, region);
+        }
+        return retrievedItems;
+    }
+
+    /**
+     * Checks whether any {@link QuadTreeItem}'s fat bounds overlap the area, without retrieving anything;
+     * the search stops as soon as one is found.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return whether the area holds any item */
+    @Override
+    public boolean any(Rectangle area) {
+        trimPages();
+        return (dynamicLayerEnabled && super.any(area))
+                || (staticLayer != null && staticLayerEnabled && staticLayer.any(area));
+    }
+
+    /**
+     * Counts the {@link QuadTreeItem}s whose fat bounds overlap the area, without retrieving them.
+     * Every node keeps the amount of items in its subtree, so nodes fully contained by the area are not traversed.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return the amount of items found in the area */
+    @Override
+    public int count(Rectangle area) {
+        trimPages();
+        int count = 0;
+        if (dynamicLayerEnabled) {
+            count += super.count(area);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            count += staticLayer.count(area);
+        }
+        return count;
+    }
+
+    /**
+     * Finds a {@link QuadTreeItem} whose fat bounds overlap the area and that satisfies the predicate,
+     * without retrieving anything; the search stops as soon as one is found.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @param predicate the condition the item must satisfy
+     * @return the first item found, or null if there's none */
+    @Override
+    public QuadTreeItem<T> first(Rectangle area, Predicate<QuadTreeItem<T>> predicate) {
+        trimPages();
+        QuadTreeItem<T> item = null;
+        if (dynamicLayerEnabled) {
+            item = super.first(area, predicate);
+        }
+        if (item == null && staticLayer != null && staticLayerEnabled) {
+            item = staticLayer.first(area, predicate);
+        }
+        return item;
+    }
+
+    /**
+     * Starts emitting the {@link QuadTreeItem}s in order of distance from the point, closest first, through
+     * the returned {@link DistanceQuery}; nodes are only opened as the iteration reaches them, so stopping after
+     * the first few items skips most of the tree. Items of the static layer, if any, are included as well.
+     * The same {@link DistanceQuery} is returned by every call.
+     * @param x the point's horizontal position
+     * @param y the point's vertical position
+     * @return the query, whose next() method returns the next closest item */
+    public DistanceQuery<T> nearest(float x, float y) {
+        return nearest(x, y, -1);
+    }
+
+    /**
+     * Same as nearest(), but only emits the {@link QuadTreeItem}s whose category mask shares at least one bit
+     * with the given mask, skipping the subtrees holding none of said categories.
+     * @param x the point's horizontal position
+     * @param y the point's vertical position
+     * @param categoryMask the categories to search for, -1 for all of them
+     * @return the query, whose next() method returns the next closest item */
+    public DistanceQuery<T> nearest(float x, float y, int categoryMask) {
+        trimPages();
+        distanceQuery.reset(x, y, categoryMask);
+        if (dynamicLayerEnabled) {
+            distanceQuery.add(this);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            distanceQuery.add(staticLayer);
+        }
+        return distanceQuery;
+    }
+
+    /**
+     * Same as retrieve(), but the returned {@link QuadTreeItem}s are sorted by their sort key
+     * through {@link QuadTreeItemSorter}, without allocating.
+     * Useful for rendering, as items sharing a texture get drawn one after another and
+     * the {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} doesn't need to flush on every texture switch.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area, sorted by key */
+    @Override
+    public Array<QuadTreeItem<T>> retrieveSorted(Rectangle area) {
+        return sorter.sort(retrieve(area));
+    }
+
+    /**
+     * Same as retrieve(), but only returns the {@link QuadTreeItem}s whose object's bounds overlap the area,
+     * discarding the ones that were only found because of their fat bounds.
+     * @param area the {@link Rectangle} area to search in the tree
+     * @return list of {@link QuadTreeItem} whose object's bounds overlap the defined {@link Rectangle} area */
+    @Override
+    public Array<QuadTreeItem<T>> retrieveTight(Rectangle area) {
+        Array<QuadTreeItem<T>> list = retrieve(area);
+        int size = 0;
+        for (int i = 0, n = list.size; i < n; i++) {
+            QuadTreeItem<T> item = list.get(i);
+            if (item.getObjectBounds().overlaps(area)) {
+                list.set(size++, item);
+            }
+        }
+        list.truncate(size);
+        return list;
+    }
+
+    /** Renders the tree and its static layer, if any; disabled layers are not rendered. */
+    @Override
+    public void render(ShapeRenderer shapeRenderer) {
+        if (dynamicLayerEnabled) {
+            super.render(shapeRenderer);
+        }
+        if (staticLayer != null && staticLayerEnabled) {
+            staticLayer.render(shapeRenderer);
+        }
     }
 
     //
 
+    /**
+     * Returns the static layer, a second tree meant for items that never move, such as walls, tiles and props.
+     * Its items should be obtained and inserted through the layer itself, once; they're left untouched
+     * by this tree's clear(), so that only moving items get reinserted every frame, while this tree's
+     * queries keep returning the items of both layers.
+     * The layer is created on first use, with this tree's current bounds and settings.
+     * @return the static layer */
+    public QuadTreeRoot<T> getStaticLayer() {
+        if (staticLayer == null) {
+            staticLayer = new QuadTreeRoot<>(new Rectangle(bounds), maxLevel, maxItemsPerNode, poolsSize);
+            staticLayer.setAutoExpand(autoExpand);
+        }
+        return staticLayer;
+    }
+
+    /** @return whether the static layer has been created, without creating it */
+    public boolean hasStaticLayer() {
+        return staticLayer != null;
+    }
+
+    /**
+     * Pages out the least recently used pages of this tree and of its static layer, if they're paged and went over
+     * budget; done before every query and insertion, so that the items retrieved by a query stay valid until the next. */
+    private void trimPages() {
+        if (pager != null) {
+            pager.trimIfLoaded();
+        }
+        if (staticLayer != null && staticLayer.pager != null) {
+            staticLayer.pager.trimIfLoaded();
+        }
+    }
+
+    /** @return whether the item is stored in the static layer, rather than in this tree */
+    private boolean isInStaticLayer(QuadTreeItem<T> item) {
+        return staticLayer != null && item.node != null && item.node.root == staticLayer;
+    }
+
     /**
      * Obtains a {@link QuadTreeItem} from {@link PoolQuadTreeItem}, for efficient memory usage.
+     * If generational clear is enabled, the item is taken from the slab instead, and stays valid until the next clear().
      * This should be called from within your application.
      * @return a newly freed {@link QuadTreeItem} */
+    @Override
     public QuadTreeItem<T> obtainItem() {
-        return itemsPool.obtain();
+        if (!generationalClear) {
+            return itemsPool.obtain();
+        }
+        QuadTreeItem<T> item;
+        if (slabUsed < slab.size) {
+            item = slab.get(slabUsed);
+            item.reset();
+        }
+        else {
+            item = itemsPool.obtain();
+            slab.add(item);
+        }
+        slabUsed++;
+        return item;
+    }
+
+    /**
+     * Frees a {@link QuadTreeItem} through {@link PoolQuadTreeItem}, for efficient memory usage.
+     * If generational clear is enabled the item is left alone, as the slab reclaims it on the next clear().
+     * @param item the {@link QuadTreeItem} to free */
+    private void freeItem(QuadTreeItem<T> item) {
+        if (!generationalClear) {
+            itemsPool.free(item);
+        }
     }
 
     /**
@@ -94,7 +578,9 @@ public class QuadTreeRoot<T> extends QuadTree<T> {
      * Used when the {@link QuadTree} clears itself, should not be called under any other circumstance.
      * @param items the {@link Array} of {@link QuadTreeItem}s to free */
     void freeAllItems(Array<QuadTreeItem<T>> items) {
-        itemsPool.freeAll(items);
+        if (!generationalClear) {
+            itemsPool.freeAll(items);
+        }
     }
 
     /**
@@ -131,4 +617,93 @@ public class QuadTreeRoot<T> extends QuadTree<T> {
         this.maxItemsPerNode = maxItemsPerSector;
     }
 
+    /** @return the amount of items stored in this tree, excluding the static layer's */
+    public int getItemCount() {
+        return subtreeItemCount;
+    }
+
+    /** @return the amount of nodes currently in use by this tree, excluding the static layer's */
+    public int getNodeCount() {
+        return countNodes();
+    }
+
+    /** @return the deepest level currently reached by this tree, 0 if the root is not split */
+    public int getDepth() {
+        return depth();
+    }
+
+    /** @return the tree's current bounds, which change over time if auto expansion is enabled */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    public boolean isStaticLayerEnabled() {
+        return staticLayerEnabled;
+    }
+
+    /** @param staticLayerEnabled whether queries and rendering include the static layer's items, true by default */
+    public void setStaticLayerEnabled(boolean staticLayerEnabled) {
+        this.staticLayerEnabled = staticLayerEnabled;
+    }
+
+    public boolean isDynamicLayerEnabled() {
+        return dynamicLayerEnabled;
+    }
+
+    /** @param dynamicLayerEnabled whether queries and rendering include this tree's own items, true by default */
+    public void setDynamicLayerEnabled(boolean dynamicLayerEnabled) {
+        this.dynamicLayerEnabled = dynamicLayerEnabled;
+    }
+
+    public boolean isGenerationalClear() {
+        return generationalClear;
+    }
+
+    /**
+     * When enabled, clear() runs in constant time: it bumps the tree's generation, so that every node
+     * stamped with an older one is treated as empty and gets reused the next time its parent splits,
+     * while items are obtained from a slab which is reclaimed in bulk. Meant for trees rebuilt every frame;
+     * items obtained in generational mode must not be used after the next clear().
+     * Toggling this clears the tree.
+     * @param generationalClear whether clear() is generational, false by default */
+    public void setGenerationalClear(boolean generationalClear) {
+        if (this.generationalClear == generationalClear) {
+            return;
+        }
+        clear();
+        if (this.generationalClear) {
+            this.generationalClear = false;
+            discardItems();
+            super.clear();
+            itemsPool.freeAll(slab);
+            slab.clear();
+            slabUsed = 0;
+        }
+        this.generationalClear = generationalClear;
+    }
+
+    public boolean isAutoExpand() {
+        return autoExpand;
+    }
+
+    /**
+     * When enabled, inserting an item that doesn't fit the tree's bounds doubles them toward the item,
+     * instead of rejecting it; tight initial bounds can then be used, saving levels to traverse.
+     * The tree's bounds must have a positive width and height, as empty bounds can't be doubled.
+     * @param autoExpand whether the tree's bounds grow to fit new items, false by default */
+    public void setAutoExpand(boolean autoExpand) {
+        if (autoExpand && (bounds.width <= 0 || bounds.height <= 0)) {
+            throw new GdxRuntimeException("Auto expansion requires bounds with a positive size: " + bounds);
+        }
+        this.autoExpand = autoExpand;
+    }
+
+    public float getVelocityMultiplier() {
+        return velocityMultiplier;
+    }
+
+    public void setVelocityMultiplier(float velocityMultiplier) {
+        this.velocityMultiplier = velocityMultiplier;
+    }
+
 }
@@ -0,0 +1,127 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/**
+ * A single region of the {@link ShardedQuadTree}, owning an independent {@link QuadTreeRoot} along with its pools.
+ * Objects are staged into the shard first, then the shard rebuilds its tree from them as an {@link AsyncTask},
+ * so that every shard can be rebuilt on its own thread without any synchronization.
+ * The tree's bounds always match the shard's cell: objects straddling the cell's border are placed by
+ * their part within the cell, which becomes their items' fat bounds, while their object bounds stay whole.
+ * @author Aret3Dev */
+public class QuadTreeShard<T> implements AsyncTask<Void> {
+
+    final int column, row;
+    private final Rectangle cellBounds;
+    private final QuadTreeRoot<T> root;
+    private final Array<T> stagedObjects;
+    /** The staged objects' bounds, four values each: x, y, width and height. */
+    private final FloatArray stagedBounds;
+    private final Rectangle objectBounds = new Rectangle();
+    private final Rectangle clippedBounds = new Rectangle();
+
+    QuadTreeShard(int column, int row, Rectangle bounds, int maxLevel, int maxItemsPerNode, int poolsSize) {
+        this.column = column;
+        this.row = row;
+        cellBounds = new Rectangle(bounds);
+        root = new QuadTreeRoot<>(new Rectangle(bounds), maxLevel, maxItemsPerNode, poolsSize);
+        root.setGenerationalClear(true);
+        stagedObjects = new Array<>(poolsSize);
+        stagedBounds = new FloatArray(poolsSize * 4);
+    }
+
+    //
+
+    /**
+     * Stages an object, to be inserted on the next rebuild. Should only be called from a single thread.
+     * @param object the object to stage
+     * @param bounds the object's boundaries, which are copied */
+    void stage(T object, Rectangle bounds) {
+        stagedObjects.add(object);
+        stagedBounds.add(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /** Clears the staged objects, without touching the tree. */
+    void clearStaged() {
+        stagedObjects.clear();
+        stagedBounds.clear();
+    }
+
+    /** Clears the staged objects and the tree, whose bounds are set back to the shard's cell. */
+    void clear() {
+        clearStaged();
+        clearTree();
+    }
+
+    private void clearTree() {
+        root.clear();
+        root.getBounds().set(cellBounds);
+    }
+
+    /**
+     * Rebuilds this shard's tree from the staged objects, then clears them.
+     * Only touches this shard's own data, so it's safe to run concurrently with the other shards. */
+    @Override
+    public Void call() {
+        clearTree();
+        float[] bounds = stagedBounds.items;
+        for (int i = 0, n = stagedObjects.size; i < n; i++) {
+            objectBounds.set(bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+            if (!clip(objectBounds, clippedBounds)) {
+                continue;
+            }
+            QuadTreeItem<T> item = root.obtainItem();
+            item.init(stagedObjects.get(i), objectBounds);
+            item.getFatBounds().set(clippedBounds);
+            root.insert(item);
+        }
+        clearStaged();
+        return null;
+    }
+
+    /**
+     * Clips an object's bounds to the shard's cell, edges included, as the tree's own tests exclude them.
+     * An object flat along an axis is given the size of the tree's smallest nodes along it, so that an object
+     * lying on the cell's border can still be found through the cell.
+     * @param bounds the object's bounds
+     * @param clipped the {@link Rectangle} the clipped bounds are written into
+     * @return whether the object lies in the cell, rather than only touching its border */
+    private boolean clip(Rectangle bounds, Rectangle clipped) {
+        float minX = Math.max(bounds.x, cellBounds.x);
+        float minY = Math.max(bounds.y, cellBounds.y);
+        float maxX = Math.min(bounds.x + bounds.width, cellBounds.x + cellBounds.width);
+        float maxY = Math.min(bounds.y + bounds.height, cellBounds.y + cellBounds.height);
+        if (maxX < minX || maxY < minY
+                || (maxX == minX && bounds.width > 0) || (maxY == minY && bounds.height > 0)) {
+            return false;
+        }
+        float leafScale = (float) Math.pow(2, -root.getMaxLevel());
+        if (maxX == minX) {
+            maxX = minX + cellBounds.width * leafScale;
+        }
+        if (maxY == minY) {
+            maxY = minY + cellBounds.height * leafScale;
+        }
+        clipped.set(minX, minY, maxX - minX, maxY - minY);
+        return true;
+    }
+
+    //
+
+    /** @return the shard's own {@link QuadTreeRoot}, which should only be read from while no rebuild is running */
+    public QuadTreeRoot<T> getRoot() {
+        return root;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+}
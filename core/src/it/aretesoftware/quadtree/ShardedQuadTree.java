@@ -0,0 +1,208 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+
+/**
+ * Tiles the world into a grid of {@link QuadTreeShard}s, each one owning an independent {@link QuadTreeRoot}
+ * and pools, so that every region of the world can be rebuilt in parallel through an {@link AsyncExecutor}.
+ * Objects are added once per update and registered into every shard they overlap, so that each shard can be
+ * searched on its own; queries fan out only to the shards overlapping the searched area, and report objects
+ * spanning several shards only once. Every shard's tree keeps the bounds of its cell, so neighbouring shards
+ * never overlap: objects sticking out of the world are clipped to the shards along its border, while objects
+ * entirely outside of the world are kept in an overflow {@link DynamicAABBTree}, which has no bounds to outgrow.
+ * On GWT the {@link AsyncExecutor} runs every task synchronously, so shards are rebuilt one after another.
+ * @author Aret3Dev */
+public class ShardedQuadTree<T> implements Disposable {
+
+    private final Rectangle worldBounds;
+    private final int columns, rows;
+    private final float shardWidth, shardHeight;
+    private final Array<QuadTreeShard<T>> shards;
+    private final DynamicAABBTree<T> overflow;
+    private final Array<T> overflowObjects;
+    /** The overflowing objects' bounds, four values each: x, y, width and height. */
+    private final FloatArray overflowBounds;
+    private final Rectangle objectBounds = new Rectangle();
+    private final Array<AsyncResult<Void>> results;
+    private final Array<QuadTreeItem<T>> retrievedItems;
+    private final AsyncExecutor executor;
+
+    public ShardedQuadTree(Rectangle worldBounds, int columns, int rows, int threads) {
+        this(worldBounds, columns, rows, threads, 6, 4, 32);
+    }
+
+    public ShardedQuadTree(Rectangle worldBounds, int columns, int rows, int threads,
+                           int maxLevel, int maxItemsPerNode, int poolsSize) {
+        this.worldBounds = new Rectangle(worldBounds);
+        this.columns = columns;
+        this.rows = rows;
+        shardWidth = worldBounds.width / columns;
+        shardHeight = worldBounds.height / rows;
+        shards = new Array<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                Rectangle bounds = new Rectangle(worldBounds.x + column * shardWidth,
+                        worldBounds.y + row * shardHeight, shardWidth, shardHeight);
+                shards.add(new QuadTreeShard<T>(column, row, bounds, maxLevel, maxItemsPerNode, poolsSize));
+            }
+        }
+        overflow = new DynamicAABBTree<>(poolsSize);
+        overflowObjects = new Array<>(poolsSize);
+        overflowBounds = new FloatArray(poolsSize * 4);
+        results = new Array<>(columns * rows);
+        retrievedItems = new Array<>(poolsSize);
+        executor = new AsyncExecutor(Math.max(1, threads), "ShardedQuadTree");
+    }
+
+    //
+
+    /**
+     * Adds an object for the next update(), registering it into every shard its bounds overlap,
+     * or into the overflow if it lies entirely outside of the world.
+     * Should be called from a single thread, while no update is running.
+     * @param object the object to add
+     * @param bounds the object's boundaries, which are copied */
+    public void add(T object, Rectangle bounds) {
+        if (!bounds.overlaps(worldBounds)) {
+            overflowObjects.add(object);
+            overflowBounds.add(bounds.x, bounds.y, bounds.width, bounds.height);
+            return;
+        }
+        int minColumn = column(bounds.x);
+        int maxColumn = column(bounds.x + bounds.width);
+        int minRow = row(bounds.y);
+        int maxRow = row(bounds.y + bounds.height);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                shards.get(row * columns + column).stage(object, bounds);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every shard from the objects added since the last update, each on a worker thread,
+     * and waits for all of them to finish. The objects have to be added again before the next update. */
+    public void update() {
+        results.clear();
+        for (int i = 0, n = shards.size; i < n; i++) {
+            results.add(executor.submit(shards.get(i)));
+        }
+        rebuildOverflow();
+        for (int i = 0, n = results.size; i < n; i++) {
+            results.get(i).get();
+        }
+        results.clear();
+    }
+
+    /** Rebuilds the overflow from the objects outside of the world, on the calling thread while the shards rebuild. */
+    private void rebuildOverflow() {
+        overflow.clear();
+        float[] bounds = overflowBounds.items;
+        for (int i = 0, n = overflowObjects.size; i < n; i++) {
+            objectBounds.set(bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+            QuadTreeItem<T> item = overflow.obtainItem();
+            item.init(overflowObjects.get(i), objectBounds);
+            overflow.insert(item);
+        }
+        overflowObjects.clear();
+        overflowBounds.clear();
+    }
+
+    /**
+     * Clears every shard's tree and the overflow, along with any object added since the last update;
+     * every shard's tree is set back to the bounds of its cell. */
+    public void clear() {
+        retrievedItems.clear();
+        for (int i = 0, n = shards.size; i < n; i++) {
+            shards.get(i).clear();
+        }
+        overflow.clear();
+        overflowObjects.clear();
+        overflowBounds.clear();
+    }
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose object's bounds overlap the area, from the shards it overlaps only
+     * and from the overflow, using an internal {@link Array} for efficient memory usage.
+     * Said {@link Array} is cleared before retrieval.
+     * An object registered into several shards is reported by the first of them the area overlaps.
+     * @param area the {@link Rectangle} area to search
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
+    public Array<QuadTreeItem<T>> retrieve(Rectangle area) {
+        retrievedItems.clear();
+        int minColumn = column(area.x);
+        int maxColumn = column(area.x + area.width);
+        int minRow = row(area.y);
+        int maxRow = row(area.y + area.height);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Array<QuadTreeItem<T>> found = shards.get(row * columns + column).getRoot().retrieve(area);
+                for (int i = 0, n = found.size; i < n; i++) {
+                    QuadTreeItem<T> item = found.get(i);
+                    Rectangle bounds = item.getObjectBounds();
+                    if (bounds.overlaps(area)
+                            && Math.max(column(bounds.x), minColumn) == column && Math.max(row(bounds.y), minRow) == row) {
+                        retrievedItems.add(item);
+                    }
+                }
+            }
+        }
+        Array<QuadTreeItem<T>> found = overflow.retrieve(area);
+        for (int i = 0, n = found.size; i < n; i++) {
+            QuadTreeItem<T> item = found.get(i);
+            if (item.getObjectBounds().overlaps(area)) {
+                retrievedItems.add(item);
+            }
+        }
+        return retrievedItems;
+    }
+
+    private int column(float x) {
+        int column = (int) Math.floor((x - worldBounds.x) / shardWidth);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(float y) {
+        int row = (int) Math.floor((y - worldBounds.y) / shardHeight);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    //
+
+    /** Render every shard's tree, and the overflow. */
+    public void render(ShapeRenderer shapeRenderer) {
+        for (int i = 0, n = shards.size; i < n; i++) {
+            shards.get(i).getRoot().render(shapeRenderer);
+        }
+        overflow.render(shapeRenderer);
+    }
+
+    /**
+     * @param column the shard's column, starting from the world's left side
+     * @param row the shard's row, starting from the world's bottom side
+     * @return the shard at the given cell of the grid */
+    public QuadTreeShard<T> getShard(int column, int row) {
+        return shards.get(row * columns + column);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** Shuts down the worker threads. */
+    @Override
+    public void dispose() {
+        executor.dispose();
+    }
+
+}
@@ -0,0 +1,273 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * A uniform grid of square cells, hashed by their coordinates into a {@link LongMap}, so that only occupied cells exist.
+ * A companion {@link SpatialIndex} to the {@link QuadTreeRoot}, meant for objects of roughly the same size:
+ * every {@link QuadTreeItem} is stored in the single cell holding the bottom-left corner of its fat bounds,
+ * thus insertion costs a single hash lookup, while queries widen the searched area by the largest item's size.
+ * Said size is recomputed by the next query once the largest item is removed or moved, so a single large
+ * transient item doesn't widen later queries for good.
+ * The cell size should be in the same order of magnitude as the objects' size.
+ * Uses {@link Pool} implementations through {@link PoolSpatialHashGridCell} and {@link PoolQuadTreeItem} for efficient memory usage.
+ * @author Aret3Dev */
+public class SpatialHashGrid<T> implements SpatialIndex<T> {
+
+    private final float cellSize;
+    private float maxItemWidth, maxItemHeight;
+    private boolean maxItemSizeStale;
+    private float velocityMultiplier = 2f;
+    private final LongMap<Array<QuadTreeItem<T>>> cells;
+    private final PoolSpatialHashGridCell<T> cellsPool;
+    private final PoolQuadTreeItem<T> itemsPool;
+    private final Array<QuadTreeItem<T>> retrievedItems;
+    private final QuadTreeItemSorter<T> sorter;
+
+    public SpatialHashGrid(float cellSize) {
+        this(cellSize, 32);
+    }
+
+    public SpatialHashGrid(float cellSize, int poolsSize) {
+        this.cellSize = cellSize;
+        cells = new LongMap<>(poolsSize);
+        cellsPool = new PoolSpatialHashGridCell<>(4);
+        cellsPool.fill(poolsSize);
+        itemsPool = new PoolQuadTreeItem<>(this);
+        itemsPool.fill(poolsSize);
+        retrievedItems = new Array<>(poolsSize);
+        sorter = new QuadTreeItemSorter<>(poolsSize);
+    }
+
+    //
+
+    /** Frees every cell and {@link QuadTreeItem} of the grid. */
+    @Override
+    public void clear() {
+        retrievedItems.clear();
+        for (Array<QuadTreeItem<T>> cell : cells.values()) {
+            itemsPool.freeAll(cell);
+            cellsPool.free(cell);
+        }
+        cells.clear();
+        maxItemWidth = 0;
+        maxItemHeight = 0;
+        maxItemSizeStale = false;
+    }
+
+    /**
+     * Inserts a {@link QuadTreeItem} into the cell holding the bottom-left corner of its fat bounds.
+     * @param item the item to add into the grid
+     * @return whether the item was added or not, false only if it's already stored in the grid,
+     * in which case it's left untouched */
+    @Override
+    public boolean insert(QuadTreeItem<T> item) {
+        if (item.cell != null) {
+            return false;
+        }
+        Rectangle rect = item.getFatBounds();
+        long key = key(cellCoordinate(rect.x), cellCoordinate(rect.y));
+        Array<QuadTreeItem<T>> cell = cells.get(key);
+        if (cell == null) {
+            cell = cellsPool.obtain();
+            cells.put(key, cell);
+        }
+        cell.add(item);
+        item.cell = cell;
+        maxItemWidth = Math.max(maxItemWidth, rect.width);
+        maxItemHeight = Math.max(maxItemHeight, rect.height);
+        return true;
+    }
+
+    /**
+     * Removes a {@link QuadTreeItem} from the grid and frees it through {@link PoolQuadTreeItem}.
+     * @param item the item to remove
+     * @return whether the item was stored in the grid */
+    @Override
+    public boolean remove(QuadTreeItem<T> item) {
+        if (!detach(item)) {
+            return false;
+        }
+        itemsPool.free(item);
+        return true;
+    }
+
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds) {
+        return update(item, objectBounds, 0, 0);
+    }
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the grid.
+     * The item is only moved to another cell once its new bounds leave its fat bounds, in which case
+     * the fat bounds are rebuilt around the new bounds through the item's margin, and swept
+     * along the object's velocity times the velocity multiplier.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @param velocityX the object's horizontal movement per update
+     * @param velocityY the object's vertical movement per update
+     * @return whether the item is still stored in the grid, always true */
+    @Override
+    public boolean update(QuadTreeItem<T> item, Rectangle objectBounds, float velocityX, float velocityY) {
+        item.setObjectBounds(objectBounds);
+        if (item.cell != null && item.fitsFatBounds()) {
+            return true;
+        }
+        detach(item);
+        item.fatten(velocityX, velocityY, velocityMultiplier);
+        return insert(item);
+    }
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose fat bounds overlap the area, using the grid's
+     * internal {@link Array} for efficient memory usage. Said {@link Array} is cleared before retrieval.
+     * If the area spans more cells than the occupied ones, the occupied cells are scanned instead.
+     * @param area the {@link Rectangle} area to search in the grid
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
+    @Override
+    public Array<QuadTreeItem<T>> retrieve(Rectangle area) {
+        retrievedItems.clear();
+        if (maxItemSizeStale) {
+            updateMaxItemSize();
+        }
+        int minX = cellCoordinate(area.x - maxItemWidth);
+        int minY = cellCoordinate(area.y - maxItemHeight);
+        int maxX = cellCoordinate(area.x + area.width);
+        int maxY = cellCoordinate(area.y + area.height);
+        long cellsInArea = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        if (cellsInArea > cells.size) {
+            for (Array<QuadTreeItem<T>> cell : cells.values()) {
+                addOverlapping(cell, area);
+            }
+            return retrievedItems;
+        }
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Array<QuadTreeItem<T>> cell = cells.get(key(x, y));
+                if (cell != null) {
+                    addOverlapping(cell, area);
+                }
+            }
+        }
+        return retrievedItems;
+    }
+
+    @Override
+    public Array<QuadTreeItem<T>> retrieveSorted(Rectangle area) {
+        return sorter.sort(retrieve(area));
+    }
+
+    @Override
+    public Array<QuadTreeItem<T>> retrieveTight(Rectangle area) {
+        Array<QuadTreeItem<T>> list = retrieve(area);
+        int size = 0;
+        for (int i = 0, n = list.size; i < n; i++) {
+            QuadTreeItem<T> item = list.get(i);
+            if (item.getObjectBounds().overlaps(area)) {
+                list.set(size++, item);
+            }
+        }
+        list.truncate(size);
+        return list;
+    }
+
+    //
+
+    /**
+     * Obtains a {@link QuadTreeItem} from {@link PoolQuadTreeItem}, for efficient memory usage.
+     * This should be called from within your application.
+     * @return a newly freed {@link QuadTreeItem} */
+    @Override
+    public QuadTreeItem<T> obtainItem() {
+        return itemsPool.obtain();
+    }
+
+    /**
+     * Removes a {@link QuadTreeItem} from its cell, without freeing the item;
+     * the cell is freed once it holds no more items. If the item was the largest one,
+     * the largest item's size is recomputed by the next query.
+     * @return whether the item was stored in the grid */
+    private boolean detach(QuadTreeItem<T> item) {
+        Array<QuadTreeItem<T>> cell = item.cell;
+        if (cell == null || !cell.removeValue(item, true)) {
+            return false;
+        }
+        item.cell = null;
+        Rectangle rect = item.getFatBounds();
+        if (rect.width >= maxItemWidth || rect.height >= maxItemHeight) {
+            maxItemSizeStale = true;
+        }
+        if (cell.size == 0) {
+            cells.remove(key(cellCoordinate(rect.x), cellCoordinate(rect.y)));
+            cellsPool.free(cell);
+        }
+        return true;
+    }
+
+    /** Recomputes the size of the largest item, by scanning every occupied cell. */
+    private void updateMaxItemSize() {
+        maxItemWidth = 0;
+        maxItemHeight = 0;
+        for (Array<QuadTreeItem<T>> cell : cells.values()) {
+            for (int i = 0, n = cell.size; i < n; i++) {
+                Rectangle rect = cell.get(i).getFatBounds();
+                maxItemWidth = Math.max(maxItemWidth, rect.width);
+                maxItemHeight = Math.max(maxItemHeight, rect.height);
+            }
+        }
+        maxItemSizeStale = false;
+    }
+
+    private void addOverlapping(Array<QuadTreeItem<T>> cell, Rectangle area) {
+        for (int i = 0, n = cell.size; i < n; i++) {
+            QuadTreeItem<T> item = cell.get(i);
+            if (item.getFatBounds().overlaps(area)) {
+                retrievedItems.add(item);
+            }
+        }
+    }
+
+    private int cellCoordinate(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    //
+
+    /** Render this grid's occupied cells. */
+    @Override
+    public void render(ShapeRenderer shapeRenderer) {
+        shapeRenderer.setColor(Color.ORANGE);
+        for (LongMap.Entry<Array<QuadTreeItem<T>>> entry : cells.entries()) {
+            int cellX = (int) (entry.key >> 32);
+            int cellY = (int) entry.key;
+            shapeRenderer.rect(cellX * cellSize, cellY * cellSize, cellSize, cellSize);
+        }
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /** @return the amount of occupied cells */
+    public int getCellCount() {
+        return cells.size;
+    }
+
+    public float getVelocityMultiplier() {
+        return velocityMultiplier;
+    }
+
+    public void setVelocityMultiplier(float velocityMultiplier) {
+        this.velocityMultiplier = velocityMultiplier;
+    }
+
+}
@@ -0,0 +1,77 @@
+package it.aretesoftware.quadtree;
+
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The operations shared by every spatial index in this package, such as {@link QuadTreeRoot}
+ * and {@link DynamicAABBTree}, so that callers can switch between them without any other change.
+ * All indices store {@link QuadTreeItem}s, which should be obtained through obtainItem().
+ * @author Aret3Dev */
+public interface SpatialIndex<T> {
+
+    /**
+     * Obtains a {@link QuadTreeItem} from the index's pool, for efficient memory usage.
+     * @return a newly freed {@link QuadTreeItem} */
+    QuadTreeItem<T> obtainItem();
+
+    /**
+     * Inserts a {@link QuadTreeItem} into the index; the item is freed if it couldn't get added.
+     * An item already stored in the index is left untouched, and isn't freed.
+     * @param item the item to add into the index
+     * @return whether the item was added or not, false if it's already stored in the index */
+    boolean insert(QuadTreeItem<T> item);
+
+    /**
+     * Removes a {@link QuadTreeItem} from the index and frees it.
+     * @param item the item to remove
+     * @return whether the item was stored in the index */
+    boolean remove(QuadTreeItem<T> item);
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the index,
+     * relocating it only once it leaves its fat bounds.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @return whether the item is still stored in the index */
+    boolean update(QuadTreeItem<T> item, Rectangle objectBounds);
+
+    /**
+     * Updates the bounds of a {@link QuadTreeItem} already stored in the index,
+     * relocating it only once it leaves its fat bounds, which are then swept along the velocity.
+     * @param item the item to update
+     * @param objectBounds the object's new boundaries
+     * @param velocityX the object's horizontal movement per update
+     * @param velocityY the object's vertical movement per update
+     * @return whether the item is still stored in the index */
+    boolean update(QuadTreeItem<T> item, Rectangle objectBounds, float velocityX, float velocityY);
+
+    /**
+     * Retrieves the {@link QuadTreeItem}s whose fat bounds may overlap the area, into an internal {@link Array}
+     * which is cleared before retrieval.
+     * @param area the {@link Rectangle} area to search in the index
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area */
+    Array<QuadTreeItem<T>> retrieve(Rectangle area);
+
+    /**
+     * Same as retrieve(), but the returned {@link QuadTreeItem}s are sorted by their sort key.
+     * @param area the {@link Rectangle} area to search in the index
+     * @return list of {@link QuadTreeItem} found in the defined {@link Rectangle} area, sorted by key */
+    Array<QuadTreeItem<T>> retrieveSorted(Rectangle area);
+
+    /**
+     * Same as retrieve(), but only returns the {@link QuadTreeItem}s whose object's bounds overlap the area.
+     * @param area the {@link Rectangle} area to search in the index
+     * @return list of {@link QuadTreeItem} whose object's bounds overlap the defined {@link Rectangle} area */
+    Array<QuadTreeItem<T>> retrieveTight(Rectangle area);
+
+    /**
+     * Removes and frees every {@link QuadTreeItem} stored in the index. Items kept in a separate layer
+     * owned by the index, such as {@link QuadTreeRoot}'s static layer, are left untouched. */
+    void clear();
+
+    /** Renders the index's structure, for debugging purposes. */
+    void render(ShapeRenderer shapeRenderer);
+
+}
@@ -0,0 +1,248 @@
+package it.aretesoftware;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+
+import it.aretesoftware.example.QuadtreeExample;
+import it.aretesoftware.example.SpriteEntity;
+import it.aretesoftware.quadtree.DynamicAABBTree;
+import it.aretesoftware.quadtree.QuadTreeRoot;
+import it.aretesoftware.quadtree.SpatialHashGrid;
+import it.aretesoftware.quadtree.SpatialIndex;
+
+/**
+ * Replays a {@link BenchmarkScenario} without a window, running {@link QuadtreeExample}'s update and query loop
+ * once per frame and writing each frame's timings and tree statistics to a CSV file; statistics an index
+ * doesn't have are left empty. Exits once every frame ran, logging a summary.
+ * @author Aret3Dev */
+public class Benchmark extends ApplicationAdapter {
+
+	private static final String HEADER = "frame,update_ns,query_ns,visible,items,nodes,depth\n";
+
+	private final BenchmarkScenario scenario;
+	private final FileHandle output;
+	private Writer writer;
+	private final StringBuilder row = new StringBuilder();
+	private final LongArray updateTimes = new LongArray(), queryTimes = new LongArray();
+
+	private SpatialIndex<SpriteEntity> index;
+	private Array<SpriteEntity> sprites;
+	private float[] velocities;
+	private final Rectangle worldBounds = new Rectangle(), cameraBounds = new Rectangle();
+	private Random random;
+	private int frame;
+
+	public Benchmark(BenchmarkScenario scenario, FileHandle output) {
+		this.scenario = scenario;
+		this.output = output;
+	}
+
+	@Override
+	public void create() {
+		random = new Random(scenario.seed);
+		float[] bounds = scenario.worldBounds;
+		worldBounds.set(bounds[0], bounds[1], bounds[2], bounds[3]);
+		index = CreateIndex();
+		CreateEntities();
+		writer = output.writer(false);
+		Write(HEADER);
+	}
+
+	private SpatialIndex<SpriteEntity> CreateIndex() {
+		if (scenario.index.equals("aabb")) {
+			return new DynamicAABBTree<>(scenario.poolsSize);
+		}
+		if (scenario.index.equals("hashgrid")) {
+			return new SpatialHashGrid<>(scenario.cellSize, scenario.poolsSize);
+		}
+		if (!scenario.index.equals("quadtree")) {
+			throw new GdxRuntimeException("Unknown index: " + scenario.index);
+		}
+		QuadTreeRoot<SpriteEntity> root = new QuadTreeRoot<>(new Rectangle(worldBounds),
+				scenario.maxLevel, scenario.maxItemsPerNode, scenario.poolsSize);
+		root.setAutoExpand(scenario.autoExpand);
+		root.setGenerationalClear(scenario.generationalClear);
+		return root;
+	}
+
+	private void CreateEntities() {
+		sprites = new Array<>(scenario.entities);
+		velocities = new float[scenario.entities * 2];
+		for (int i = 0; i < scenario.entities; i++) {
+			SpriteEntity entity = new SpriteEntity(scenario.entityWidth, scenario.entityHeight, 1);
+			float x = worldBounds.x + random.nextFloat() * (worldBounds.width - scenario.entityWidth);
+			float y = worldBounds.y + random.nextFloat() * (worldBounds.height - scenario.entityHeight);
+			entity.GetBounds().setPosition(x, y);
+			sprites.add(entity);
+
+			float angle = random.nextFloat() * MathUtils.PI2;
+			velocities[i * 2] = MathUtils.cos(angle) * scenario.movementSpeed;
+			velocities[i * 2 + 1] = MathUtils.sin(angle) * scenario.movementSpeed;
+		}
+	}
+
+	//
+
+	@Override
+	public void render() {
+		int lastFrame = scenario.warmupFrames + scenario.frames;
+		if (frame >= lastFrame) {
+			return;
+		}
+		MoveEntities();
+		MoveCamera(frame - scenario.warmupFrames);
+
+		long start = System.nanoTime();
+		QuadtreeExample.UpdateIndex(index, sprites);
+		long updated = System.nanoTime();
+		int visible = QuadtreeExample.QueryIndex(index, cameraBounds).size;
+		long queried = System.nanoTime();
+
+		if (frame >= scenario.warmupFrames) {
+			updateTimes.add(updated - start);
+			queryTimes.add(queried - updated);
+			WriteRow(frame - scenario.warmupFrames, updated - start, queried - updated, visible);
+		}
+		frame++;
+		if (frame == lastFrame) {
+			LogSummary();
+			Gdx.app.exit();
+		}
+	}
+
+	private void MoveEntities() {
+		String movement = scenario.movement;
+		if (movement.equals("none")) {
+			return;
+		}
+		float speed = scenario.movementSpeed;
+		float centerX = worldBounds.x + worldBounds.width * 0.5f;
+		float centerY = worldBounds.y + worldBounds.height * 0.5f;
+		for (int i = 0, n = sprites.size; i < n; i++) {
+			Rectangle bounds = sprites.get(i).GetBounds();
+			float dx, dy;
+			if (movement.equals("drift")) {
+				if (bounds.x < worldBounds.x || bounds.x + bounds.width > worldBounds.x + worldBounds.width) {
+					velocities[i * 2] = Math.signum(centerX - bounds.x) * Math.abs(velocities[i * 2]);
+				}
+				if (bounds.y < worldBounds.y || bounds.y + bounds.height > worldBounds.y + worldBounds.height) {
+					velocities[i * 2 + 1] = Math.signum(centerY - bounds.y) * Math.abs(velocities[i * 2 + 1]);
+				}
+				dx = velocities[i * 2];
+				dy = velocities[i * 2 + 1];
+			}
+			else if (movement.equals("random")) {
+				dx = (random.nextFloat() * 2f - 1f) * speed;
+				dy = (random.nextFloat() * 2f - 1f) * speed;
+			}
+			else if (movement.equals("orbit")) {
+				// Moves along the circle around the world's center, at the given speed
+				float offsetX = bounds.x - centerX;
+				float offsetY = bounds.y - centerY;
+				float radius = (float) Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+				float scale = radius > 0 ? speed / radius : 0;
+				dx = -offsetY * scale;
+				dy = offsetX * scale;
+			}
+			else {
+				throw new GdxRuntimeException("Unknown movement: " + movement);
+			}
+			bounds.setPosition(bounds.x + dx, bounds.y + dy);
+		}
+	}
+
+	private void MoveCamera(int scenarioFrame) {
+		BenchmarkScenario.CameraKeyframe[] keyframes = scenario.camera;
+		BenchmarkScenario.CameraKeyframe from = keyframes[0];
+		BenchmarkScenario.CameraKeyframe to = from;
+		for (BenchmarkScenario.CameraKeyframe keyframe : keyframes) {
+			to = keyframe;
+			if (keyframe.frame > scenarioFrame) {
+				break;
+			}
+			from = keyframe;
+		}
+		float alpha = to.frame > from.frame
+				? MathUtils.clamp((float) (scenarioFrame - from.frame) / (to.frame - from.frame), 0f, 1f) : 0f;
+		cameraBounds.set(MathUtils.lerp(from.x, to.x, alpha), MathUtils.lerp(from.y, to.y, alpha),
+				MathUtils.lerp(from.width, to.width, alpha), MathUtils.lerp(from.height, to.height, alpha));
+	}
+
+	//
+
+	private void WriteRow(int scenarioFrame, long updateTime, long queryTime, int visible) {
+		row.setLength(0);
+		row.append(scenarioFrame).append(',').append(updateTime).append(',').append(queryTime).append(',')
+				.append(visible).append(',');
+		if (index instanceof QuadTreeRoot) {
+			QuadTreeRoot<SpriteEntity> root = (QuadTreeRoot<SpriteEntity>) index;
+			row.append(root.getItemCount()).append(',').append(root.getNodeCount()).append(',').append(root.getDepth());
+		}
+		else if (index instanceof DynamicAABBTree) {
+			row.append(sprites.size).append(",,").append(((DynamicAABBTree<SpriteEntity>) index).getHeight());
+		}
+		else if (index instanceof SpatialHashGrid) {
+			row.append(sprites.size).append(',').append(((SpatialHashGrid<SpriteEntity>) index).getCellCount()).append(',');
+		}
+		row.append('\n');
+		Write(row.toString());
+	}
+
+	private void Write(String text) {
+		try {
+			writer.write(text);
+		}
+		catch (IOException e) {
+			throw new GdxRuntimeException("Error writing " + output, e);
+		}
+	}
+
+	private void LogSummary() {
+		Gdx.app.log("Benchmark", scenario.name + ", " + scenario.frames + " frames, " + scenario.index
+				+ " -> " + output.path());
+		Gdx.app.log("Benchmark", "update " + Summarize(updateTimes));
+		Gdx.app.log("Benchmark", "query  " + Summarize(queryTimes));
+	}
+
+	private static String Summarize(LongArray times) {
+		if (times.size == 0) {
+			return "no frames";
+		}
+		long[] sorted = Arrays.copyOf(times.items, times.size);
+		Arrays.sort(sorted);
+		long total = 0;
+		for (long time : sorted) {
+			total += time;
+		}
+		return String.format("mean %.3f ms, p50 %.3f ms, p95 %.3f ms, max %.3f ms",
+				total / 1e6 / sorted.length, sorted[sorted.length / 2] / 1e6,
+				sorted[(int) (sorted.length * 0.95f)] / 1e6, sorted[sorted.length - 1] / 1e6);
+	}
+
+	//
+
+	@Override
+	public void dispose() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		}
+		catch (IOException e) {
+			throw new GdxRuntimeException("Error closing " + output, e);
+		}
+	}
+
+}
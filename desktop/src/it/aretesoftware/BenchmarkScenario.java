@@ -0,0 +1,50 @@
+package it.aretesoftware;
+
+/**
+ * A scripted scenario replayed by the {@link HeadlessLauncher}, read from a JSON file whose fields match this class';
+ * any field left out keeps its default value.
+ * @author Aret3Dev */
+public class BenchmarkScenario {
+
+	public String name = "default";
+	public int frames = 600;
+	public int warmupFrames = 60;
+	public long seed = 1;
+
+	/** Entities are spread randomly over the world bounds, given as x, y, width and height. */
+	public int entities = 1000;
+	public float entityWidth = 256, entityHeight = 256;
+	public float[] worldBounds = {10000, 10000, 40000, 40000};
+	/** One of none, drift, random or orbit; the speed is in world units per frame. */
+	public String movement = "drift";
+	public float movementSpeed = 10f;
+
+	/** The camera bounds are interpolated between keyframes, and stay on the last one afterwards. */
+	public CameraKeyframe[] camera = {
+			new CameraKeyframe(0, 10000, 10000, 7000, 4500),
+			new CameraKeyframe(600, 43000, 45500, 7000, 4500)
+	};
+
+	/** One of quadtree, aabb or hashgrid. */
+	public String index = "quadtree";
+	public int maxLevel = 6, maxItemsPerNode = 4, poolsSize = 32;
+	public boolean autoExpand = true, generationalClear = true;
+	public float cellSize = 512;
+
+	public static class CameraKeyframe {
+		public int frame;
+		public float x, y, width, height;
+
+		public CameraKeyframe() {
+		}
+
+		CameraKeyframe(int frame, float x, float y, float width, float height) {
+			this.frame = frame;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+}
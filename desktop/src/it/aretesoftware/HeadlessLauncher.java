@@ -0,0 +1,25 @@
+package it.aretesoftware;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+
+/**
+ * Runs the {@link Benchmark} through the headless backend, without a window or GPU, for CI machines without displays.
+ * Usage: HeadlessLauncher [scenario.json] [output.csv]; without a scenario the default {@link BenchmarkScenario}
+ * is replayed, and the CSV is written to benchmark-[name].csv.
+ * @author Aret3Dev */
+public class HeadlessLauncher {
+	public static void main (String[] arg) {
+		BenchmarkScenario scenario = arg.length > 0
+				? new Json().fromJson(BenchmarkScenario.class, new FileHandle(arg[0]))
+				: new BenchmarkScenario();
+		FileHandle output = new FileHandle(arg.length > 1 ? arg[1] : "benchmark-" + scenario.name + ".csv");
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		// Renders as fast as possible
+		config.updatesPerSecond = 0;
+		new HeadlessApplication(new Benchmark(scenario, output), config);
+	}
+}